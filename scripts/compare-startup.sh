@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Compares startup time and memory of the JVM image (Dockerfile) and the
+# native image (Dockerfile.native). Needs the same environment variables as
+# production: SPRING_DATA_MONGODB_URI and CLOUDINARY_CLOUD_NAME/API_KEY/API_SECRET.
+#
+#   scripts/compare-startup.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=18080
+
+docker build -q -t recetario-jvm -f Dockerfile . >/dev/null
+docker build -q -t recetario-native -f Dockerfile.native . >/dev/null
+
+now_ms() { date +%s%3N; }
+
+measure() {
+  local image=$1 start ready container rss
+  start=$(now_ms)
+  container=$(docker run -d -p "$PORT:8080" \
+    -e SPRING_DATA_MONGODB_URI -e CLOUDINARY_CLOUD_NAME -e CLOUDINARY_API_KEY -e CLOUDINARY_API_SECRET \
+    "$image")
+  until curl -fs "http://localhost:$PORT/actuator/health" | grep -q '"UP"'; do
+    sleep 0.05
+  done
+  ready=$(( $(now_ms) - start ))
+  # One real request so the figure includes a warm connection pool
+  curl -fs "http://localhost:$PORT/recipes/search?size=10" >/dev/null || true
+  rss=$(docker stats --no-stream --format '{{.MemUsage}}' "$container" | cut -d/ -f1 | tr -d ' ')
+  docker rm -f "$container" >/dev/null
+  echo "$image $ready $rss"
+}
+
+printf '%-18s %12s %12s\n' imagen listo_ms rss
+for image in recetario-jvm recetario-native; do
+  for _ in $(seq "$RUNS"); do
+    read -r name ready rss < <(measure "$image")
+    printf '%-18s %12s %12s\n' "$name" "$ready" "$rss"
+  done
+done
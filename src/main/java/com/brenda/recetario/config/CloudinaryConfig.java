@@ -1,9 +1,12 @@
 package com.brenda.recetario.config;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import com.cloudinary.utils.ObjectUtils;
+import org.springframework.util.StringUtils;
 
 import com.cloudinary.Cloudinary;
 
@@ -18,11 +21,19 @@ public class CloudinaryConfig {
     @Value("${cloudinary.api-secret}")
     private String apiSecret;
 
+    // Points the SDK at a local stand-in, e.g. for load tests
+    @Value("${cloudinary.upload-prefix:}")
+    private String uploadPrefix;
+
     @Bean
     public Cloudinary cloudinary() {
-        return new Cloudinary(ObjectUtils.asMap(
-                "cloud_name", cloudName,
-                "api_key", apiKey,
-                "api_secret", apiSecret));
+        Map<String, Object> config = new HashMap<>();
+        config.put("cloud_name", cloudName);
+        config.put("api_key", apiKey);
+        config.put("api_secret", apiSecret);
+        if (StringUtils.hasText(uploadPrefix)) {
+            config.put("upload_prefix", uploadPrefix);
+        }
+        return new Cloudinary(config);
     }
 }
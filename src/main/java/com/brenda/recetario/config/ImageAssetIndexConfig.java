@@ -0,0 +1,31 @@
+package com.brenda.recetario.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import com.brenda.recetario.entity.ImageAsset;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Index on url so releasing an image does not scan the image_assets collection
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class ImageAssetIndexConfig {
+    private final MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    public void createUrlIndex() {
+        try {
+            mongoTemplate.indexOps(ImageAsset.class)
+                    .createIndex(new Index("url", Sort.Direction.ASC).unique().named("image_asset_url"));
+            log.info("ImageAssetIndexConfig: Índice de url verificado");
+        } catch (Exception e) {
+            log.error("ImageAssetIndexConfig: No se pudo crear el índice de url", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.brenda.recetario.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.brenda.recetario.invalidation.InMemoryRecipeChangeTransport;
+import com.brenda.recetario.invalidation.MongoRecipeChangeTransport;
+import com.brenda.recetario.invalidation.RecipeChangeTransport;
+import com.brenda.recetario.invalidation.RecipeInvalidationBus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Cross-instance invalidation, needed as soon as more than one replica serves traffic
+@Configuration
+@ConditionalOnProperty(name = "recipes.invalidation.enabled", havingValue = "true")
+public class InvalidationBusConfig {
+
+    @Bean
+    public RecipeChangeTransport recipeChangeTransport(MongoTemplate mongoTemplate,
+            @Value("${recipes.invalidation.transport:mongo}") String transport,
+            @Value("${recipes.invalidation.capped-size:1MB}") DataSize cappedSize) {
+        if ("memory".equalsIgnoreCase(transport))
+            return new InMemoryRecipeChangeTransport();
+        return new MongoRecipeChangeTransport(mongoTemplate, cappedSize.toBytes());
+    }
+
+    @Bean
+    public RecipeInvalidationBus recipeInvalidationBus(RecipeChangeTransport transport, MongoTemplate mongoTemplate,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+            @Value("${recipes.invalidation.gap-timeout:PT5S}") Duration gapTimeout) {
+        return new RecipeInvalidationBus(transport, mongoTemplate, eventPublisher, meterRegistry, gapTimeout);
+    }
+}
@@ -0,0 +1,62 @@
+package com.brenda.recetario.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.brenda.recetario.entity.ImageAsset;
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.enums.BulkDeleteStatus;
+import com.brenda.recetario.enums.RecipeCategory;
+import com.brenda.recetario.models.ImageReferenceDTO;
+import com.brenda.recetario.models.ImageUploadSignatureDTO;
+import com.brenda.recetario.models.IngredientSuggestionDTO;
+import com.brenda.recetario.models.PantryMatchDTO;
+import com.brenda.recetario.models.RecipeBulkDeleteResultDTO;
+import com.brenda.recetario.models.RecipeCreateDTO;
+import com.brenda.recetario.models.RecipeFacetedSearchResponseDTO;
+import com.brenda.recetario.models.RecipeFacetsDTO;
+import com.brenda.recetario.models.RecipeFilteredResponseDTO;
+import com.brenda.recetario.models.RecipeResponseDTO;
+import com.brenda.recetario.models.RecipeUpdateDTO;
+import com.brenda.recetario.models.SimilarRecipeDTO;
+import com.brenda.recetario.models.SlowQueryDTO;
+import com.brenda.recetario.warmup.HotKeyRecorder;
+import com.brenda.recetario.warmup.SearchQuery;
+
+// Reflection the native image cannot infer on its own: bodies behind
+// ResponseEntity<?> or objectMapper.readValue, the hot-key list file,
+// documents mapped through MongoTemplate, and the HTTP strategies
+// Cloudinary loads by class name
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.RecipeRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class RecipeRuntimeHints implements RuntimeHintsRegistrar {
+        static final Class<?>[] BINDING_TYPES = {
+                Recipe.class, ImageAsset.class, RecipeCategory.class, BulkDeleteStatus.class,
+                RecipeCreateDTO.class, RecipeUpdateDTO.class, RecipeResponseDTO.class,
+                RecipeFilteredResponseDTO.class, RecipeFacetedSearchResponseDTO.class, RecipeFacetsDTO.class,
+                RecipeBulkDeleteResultDTO.class, ImageReferenceDTO.class, ImageUploadSignatureDTO.class,
+                IngredientSuggestionDTO.class, PantryMatchDTO.class, SimilarRecipeDTO.class, SlowQueryDTO.class,
+                HotKeyRecorder.HotKeys.class, HotKeyRecorder.Hit.class, SearchQuery.class };
+        static final String[] CLOUDINARY_STRATEGIES = {
+                "com.cloudinary.http44.UploaderStrategy", "com.cloudinary.http44.ApiStrategy" };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), BINDING_TYPES);
+            // Spring Data sets document fields directly
+            hints.reflection().registerType(Recipe.class, MemberCategory.DECLARED_FIELDS);
+            hints.reflection().registerType(ImageAsset.class, MemberCategory.DECLARED_FIELDS);
+            for (String strategy : CLOUDINARY_STRATEGIES) {
+                hints.reflection().registerType(TypeReference.of(strategy),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            }
+        }
+    }
+}
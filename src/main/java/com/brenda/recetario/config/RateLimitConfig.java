@@ -0,0 +1,24 @@
+package com.brenda.recetario.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.brenda.recetario.ratelimit.RateLimitInterceptor;
+
+import lombok.RequiredArgsConstructor;
+
+// Rate limiting and load shedding for the recipe endpoints
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "recipes.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/recipes", "/recipes/**");
+    }
+}
@@ -0,0 +1,33 @@
+package com.brenda.recetario.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import com.brenda.recetario.entity.Recipe;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Index on lastModified so the snapshot catch-up does not scan the collection
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "recipes.index.snapshot.path")
+public class RecipeSnapshotIndexConfig {
+    private final MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    public void createLastModifiedIndex() {
+        try {
+            mongoTemplate.indexOps(Recipe.class)
+                    .createIndex(new Index("lastModified", Sort.Direction.ASC).named("recipe_last_modified"));
+            log.info("RecipeSnapshotIndexConfig: Índice de lastModified verificado");
+        } catch (Exception e) {
+            log.error("RecipeSnapshotIndexConfig: No se pudo crear el índice de lastModified", e);
+        }
+    }
+}
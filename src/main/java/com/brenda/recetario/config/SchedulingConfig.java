@@ -0,0 +1,10 @@
+package com.brenda.recetario.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Periodic jobs such as the search index snapshot
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
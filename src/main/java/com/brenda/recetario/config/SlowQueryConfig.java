@@ -0,0 +1,44 @@
+package com.brenda.recetario.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.brenda.recetario.diagnostics.SlowQueryEndpoint;
+import com.brenda.recetario.diagnostics.SlowQueryExplainer;
+import com.brenda.recetario.diagnostics.SlowQueryRecorder;
+
+// Slow query log for reads on the recipes collection, with sampled explain plans
+@Configuration
+@ConditionalOnProperty(name = "recipes.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryConfig {
+
+    @Bean
+    public SlowQueryRecorder slowQueryRecorder(
+            @Value("${recipes.slow-query.threshold:100ms}") Duration threshold) {
+        return new SlowQueryRecorder("recipes", threshold);
+    }
+
+    // The recorder has no dependency on MongoTemplate, so registering it here creates no cycle
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowQueryListener(SlowQueryRecorder recorder) {
+        return settings -> settings.addCommandListener(recorder);
+    }
+
+    @Bean
+    public SlowQueryExplainer slowQueryExplainer(SlowQueryRecorder recorder, MongoTemplate mongoTemplate,
+            @Value("${recipes.slow-query.explain-batch:5}") int batchSize,
+            @Value("${recipes.slow-query.explain-max-age:PT1H}") Duration maxAge) {
+        return new SlowQueryExplainer(recorder, mongoTemplate, batchSize, maxAge);
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryRecorder recorder) {
+        return new SlowQueryEndpoint(recorder);
+    }
+}
@@ -0,0 +1,46 @@
+package com.brenda.recetario.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition.TextIndexDefinitionBuilder;
+
+import com.brenda.recetario.entity.Recipe;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Weighted text index used when recipes.search.strategy=text
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "recipes.search.strategy", havingValue = "text")
+public class TextSearchIndexConfig {
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${recipes.search.text.title-weight:5}")
+    private float titleWeight;
+
+    @Value("${recipes.search.text.ingredients-weight:2}")
+    private float ingredientsWeight;
+
+    @PostConstruct
+    public void createTextIndex() {
+        TextIndexDefinition index = new TextIndexDefinitionBuilder()
+                .named("recipe_text")
+                .onField("title", titleWeight)
+                .onField("ingredients", ingredientsWeight)
+                .withDefaultLanguage("spanish")
+                .build();
+        try {
+            mongoTemplate.indexOps(Recipe.class).createIndex(index);
+            log.info("TextSearchIndexConfig: Índice de texto verificado (title: {}, ingredients: {})",
+                    titleWeight, ingredientsWeight);
+        } catch (Exception e) {
+            log.error("TextSearchIndexConfig: No se pudo crear el índice de texto", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.brenda.recetario.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Keeps at least as many Mongo connections open as the warm-up opens, so they are not closed right after
+@Configuration
+@ConditionalOnProperty(name = "recipes.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer warmUpPoolMinSize(
+            @Value("${recipes.warmup.pool-min-size:10}") int poolMinSize) {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool.minSize(Math.max(0, poolMinSize)));
+    }
+}
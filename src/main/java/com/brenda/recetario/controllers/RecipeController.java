@@ -1,35 +1,50 @@
 package com.brenda.recetario.controllers;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validator;
+import jakarta.servlet.http.Part;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.exceptions.InvalidDataException;
+import com.brenda.recetario.models.RecipeBulkDeleteResultDTO;
 import com.brenda.recetario.models.RecipeCreateDTO;
+import com.brenda.recetario.models.ImageUploadSignatureDTO;
+import com.brenda.recetario.models.IngredientSuggestionDTO;
+import com.brenda.recetario.models.PantryMatchDTO;
+import com.brenda.recetario.models.RecipeFacetedSearchResponseDTO;
+import com.brenda.recetario.models.RecipeFields;
 import com.brenda.recetario.models.RecipeFilteredResponseDTO;
 import com.brenda.recetario.models.RecipeResponseDTO;
 import com.brenda.recetario.models.RecipeUpdateDTO;
+import com.brenda.recetario.models.SimilarRecipeDTO;
+import com.brenda.recetario.service.ImageService;
+import com.brenda.recetario.service.IngredientSuggestionService;
+import com.brenda.recetario.service.PantryService;
+import com.brenda.recetario.service.RecipeFacetService;
+import com.brenda.recetario.service.RecipeJsonCache;
 import com.brenda.recetario.service.RecipeService;
+import com.brenda.recetario.service.SimilarRecipeService;
+import com.brenda.recetario.service.StaleWhileRevalidate;
+import com.brenda.recetario.warmup.HotKeyRecorder;
+import com.brenda.recetario.warmup.SearchQuery;
 
 @Slf4j
 @AllArgsConstructor
@@ -38,8 +53,19 @@ import com.brenda.recetario.service.RecipeService;
 @Tag(name = "Recetas", description = "Operaciones relacionadas con las recetas del sistema")
 public class RecipeController {
         private final RecipeService recipeService;
-        private final ObjectMapper objectMapper;
-        private final Validator validator;
+        private final RecipeFacetService recipeFacetService;
+        private final IngredientSuggestionService ingredientSuggestionService;
+        private final PantryService pantryService;
+        private final SimilarRecipeService similarRecipeService;
+        private final ImageService imageService;
+        private final RecipeJsonCache recipeJsonCache;
+        private final StaleWhileRevalidate staleWhileRevalidate;
+        private final HotKeyRecorder hotKeyRecorder;
+        private final RecipePartReader recipePartReader;
+
+        static final int MAX_PAGE_SIZE = 1000;
+        // Deepest result reachable with page and size: ranked search keeps (page + 1) * size in memory
+        static final int MAX_RESULT_WINDOW = 10_000;
 
         @Operation(summary = "Crear una nueva receta", description = "Crea una receta a partir de los datos enviados en formato JSON y una imagen opcional.")
         @ApiResponses(value = {
@@ -49,20 +75,16 @@ public class RecipeController {
         })
         @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
         public ResponseEntity<?> createRecipe(
-                        @Parameter(description = "Datos de la receta en formato JSON") @RequestPart("recipe") String recipeJson,
+                        @Parameter(description = "Datos de la receta en formato JSON", schema = @Schema(type = "string")) @RequestPart("recipe") Part recipePart,
                         @Parameter(description = "Imagen opcional de la receta") @RequestPart(value = "image", required = false) MultipartFile image)
-                        throws JsonProcessingException {
+                        throws IOException {
                 log.info("RecipeController: Creando nueva receta...");
 
-                RecipeCreateDTO dto = objectMapper.readValue(recipeJson, RecipeCreateDTO.class);
+                RecipeCreateDTO dto = recipePartReader.readCreate(recipePart);
 
-                Set<ConstraintViolation<RecipeCreateDTO>> violations = validator.validate(dto);
+                Map<String, String> errors = recipePartReader.validate(dto);
 
-                if (!violations.isEmpty()) {
-                        Map<String, String> errors = violations.stream()
-                                        .collect(Collectors.toMap(
-                                                        v -> v.getPropertyPath().toString(),
-                                                        ConstraintViolation::getMessage));
+                if (!errors.isEmpty()) {
                         log.warn("RecipeController: Error de validación: {}", errors);
                         return ResponseEntity.badRequest().body(errors);
                 }
@@ -80,36 +102,44 @@ public class RecipeController {
         })
         @GetMapping("/{id}")
         public ResponseEntity<?> getRecipeById(
-                        @Parameter(description = "ID de la receta a buscar") @PathVariable String id) {
+                        @Parameter(description = "ID de la receta a buscar") @PathVariable String id,
+                        @Parameter(description = "Campos a devolver, separados por coma (ej: title,imageUrl)") @RequestParam(required = false) List<String> fields,
+                        @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                        @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
                 log.info("RecipeController: Buscando receta con id: {}", id);
-                RecipeResponseDTO dto = recipeService.getRecipeById(id);
-                return ResponseEntity.ok(dto);
+                Set<String> selected = RecipeFields.parse(fields, RecipeFields.DETAIL);
+                if (selected == null) {
+                        StaleWhileRevalidate.Served<RecipeJsonCache.RecipeJson> json = staleWhileRevalidate.get(
+                                        StaleWhileRevalidate.detailKey(id),
+                                        () -> recipeJsonCache.get(id, () -> recipeService.getRecipeById(id)));
+                        hotKeyRecorder.recordRecipe(id);
+                        return cachedJson(json, ifNoneMatch, acceptEncoding);
+                }
+                RecipeResponseDTO dto = recipeService.getRecipeById(id, selected);
+                return ResponseEntity.ok(RecipeFields.filter(dto, selected));
         }
 
-        @Operation(summary = "Actualizar una receta", description = "Permite modificar uno o varios campos de una receta existente, incluyendo su imágen.")
+        @Operation(summary = "Actualizar una receta", description = "Permite modificar uno o varios campos de una receta existente, incluyendo su imágen. Solo se modifican los campos enviados; si se envía 'version' y la receta cambió desde entonces, se responde 409.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Receta actualizada exitosamente"),
                         @ApiResponse(responseCode = "400", description = "Datos inválidos o JSON incorrecto"),
                         @ApiResponse(responseCode = "404", description = "Receta no encontrada"),
+                        @ApiResponse(responseCode = "409", description = "La receta fue modificada por otra solicitud"),
                         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
         })
         @PatchMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
         public ResponseEntity<?> updateRecipe(
-                        @Parameter(description = "Datos actualizados de la receta en formato JSON") @RequestPart("recipe") String recipeJson,
+                        @Parameter(description = "Datos actualizados de la receta en formato JSON", schema = @Schema(type = "string")) @RequestPart("recipe") Part recipePart,
                         @Parameter(description = "Nueva imagen opcional de la receta") @RequestPart(value = "image", required = false) MultipartFile image)
-                        throws JsonProcessingException {
+                        throws IOException {
 
                 log.info("RecipeController: Actualizando receta...");
 
-                RecipeUpdateDTO dto = objectMapper.readValue(recipeJson, RecipeUpdateDTO.class);
+                RecipeUpdateDTO dto = recipePartReader.readUpdate(recipePart);
 
-                Set<ConstraintViolation<RecipeUpdateDTO>> violations = validator.validate(dto);
+                Map<String, String> errors = recipePartReader.validate(dto);
 
-                if (!violations.isEmpty()) {
-                        Map<String, String> errors = violations.stream()
-                                        .collect(Collectors.toMap(
-                                                        v -> v.getPropertyPath().toString(),
-                                                        ConstraintViolation::getMessage));
+                if (!errors.isEmpty()) {
                         log.warn("RecipeController: Error de validación: {}", errors);
                         return ResponseEntity.badRequest().body(errors);
                 }
@@ -134,19 +164,156 @@ public class RecipeController {
                 return ResponseEntity.ok(Map.of("message", "Receta eliminada exitosamente"));
         }
 
+        @Operation(summary = "Eliminar varias recetas", description = "Elimina hasta 100 recetas en una sola operación y borra sus imágenes en lotes. Devuelve el resultado por cada ID: DELETED o NOT_FOUND, y si la imagen pudo eliminarse.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Resultado por receta"),
+                        @ApiResponse(responseCode = "400", description = "Sin IDs o más de 100"),
+                        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+        })
+        @DeleteMapping
+        public ResponseEntity<?> deleteRecipes(
+                        @Parameter(description = "IDs de las recetas a eliminar") @RequestParam List<String> ids) {
+
+                log.info("RecipeController: Eliminando {} recetas", ids.size());
+                List<RecipeBulkDeleteResultDTO> results = recipeService.deleteRecipes(ids);
+                return ResponseEntity.ok(results);
+        }
+
         @Operation(summary = "Filtrar recetas por categoría, tipo y búsqueda libre", description = "Devuelve recetas que coinciden con categoría, fit y/o una búsqueda por título o ingredientes.")
         @GetMapping("/search")
         public ResponseEntity<?> searchRecipes(
+                        @RequestParam(required = false) List<String> categories,
+                        @RequestParam(required = false) Boolean fit,
+                        @RequestParam(required = false) String search,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "10") int size,
+                        @RequestParam(required = false) List<String> fields,
+                        @Parameter(description = "Tolerar errores de tipeo en la búsqueda (ej: 'tomte')") @RequestParam(defaultValue = "false") boolean fuzzy) {
+
+                checkPaging(page, size);
+                log.info("Buscando recetas con filtros - Categorías: {}, Fit: {}, Search: {}, Fuzzy: {}", categories, fit,
+                                search, fuzzy);
+
+                Set<String> selected = RecipeFields.parse(fields, RecipeFields.SUMMARY);
+                StaleWhileRevalidate.Served<Page<RecipeFilteredResponseDTO>> recipes = staleWhileRevalidate.get(
+                                StaleWhileRevalidate.searchKey(categories, fit, search, page, size, selected, fuzzy),
+                                () -> recipeService.searchRecipes(categories, fit, search, page, size, selected,
+                                                fuzzy));
+                hotKeyRecorder.recordSearch(new SearchQuery(categories, fit, search, page, size, fields, fuzzy));
+                return ResponseEntity.ok().headers(staleHeaders(recipes))
+                                .body(RecipeFields.filter(recipes.value(), selected));
+        }
+
+        @Operation(summary = "Buscar recetas con conteos por categoría y fit", description = "Devuelve la página de resultados junto con la cantidad de recetas por categoría y fit/no fit, calculados en una sola agregación.")
+        @GetMapping("/search/facets")
+        public ResponseEntity<?> searchRecipesWithFacets(
                         @RequestParam(required = false) List<String> categories,
                         @RequestParam(required = false) Boolean fit,
                         @RequestParam(required = false) String search,
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size) {
 
-                log.info("Buscando recetas con filtros - Categorías: {}, Fit: {}, Search: {}", categories, fit, search);
+                checkPaging(page, size);
+                log.info("Buscando recetas con facetas - Categorías: {}, Fit: {}, Search: {}", categories, fit, search);
+
+                RecipeFacetedSearchResponseDTO result = recipeFacetService.searchWithFacets(categories, fit, search,
+                                page, size);
+                return ResponseEntity.ok(result);
+        }
+
+        @Operation(summary = "Autocompletar ingredientes", description = "Devuelve los ingredientes que empiezan con el prefijo dado, ordenados por la cantidad de recetas que los usan. Se responde desde memoria, sin consultar la base de datos.")
+        @GetMapping("/ingredients/suggestions")
+        public ResponseEntity<?> suggestIngredients(
+                        @Parameter(description = "Prefijo escrito por el usuario") @RequestParam String prefix,
+                        @Parameter(description = "Cantidad máxima de sugerencias (máx. 50)") @RequestParam(defaultValue = "10") int limit) {
+
+                log.debug("RecipeController: Sugerencias de ingredientes para: {}", prefix);
+                List<IngredientSuggestionDTO> suggestions = ingredientSuggestionService.suggest(prefix, limit);
+                return ResponseEntity.ok(suggestions);
+        }
 
-                Page<RecipeFilteredResponseDTO> recipes = recipeService.searchRecipes(categories, fit, search, page,
-                                size);
+        @Operation(summary = "¿Qué puedo cocinar?", description = "Devuelve las recetas que se pueden preparar con los ingredientes indicados, permitiendo que falten hasta 'maxMissing'. Las que tienen menos faltantes aparecen primero.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Recetas posibles"),
+                        @ApiResponse(responseCode = "400", description = "Ingredientes o maxMissing inválidos"),
+                        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+        })
+        @GetMapping("/pantry")
+        public ResponseEntity<?> searchByPantry(
+                        @Parameter(description = "Ingredientes disponibles") @RequestParam List<String> ingredients,
+                        @Parameter(description = "Cantidad máxima de ingredientes faltantes") @RequestParam(defaultValue = "0") int maxMissing,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "10") int size) {
+
+                checkPaging(page, size);
+                log.info("RecipeController: Buscando recetas con ingredientes: {}, faltantes: {}", ingredients,
+                                maxMissing);
+                Page<PantryMatchDTO> recipes = pantryService.searchByPantry(ingredients, maxMissing, page, size);
+                return ResponseEntity.ok(recipes);
+        }
+
+        @Operation(summary = "Recetas similares", description = "Devuelve las recetas con ingredientes más parecidos a los de la receta indicada, junto con la similitud estimada (0 a 1). Se calcula desde memoria.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Recetas similares"),
+                        @ApiResponse(responseCode = "404", description = "Receta no encontrada"),
+                        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+        })
+        @GetMapping("/{id}/similar")
+        public ResponseEntity<?> getSimilarRecipes(
+                        @Parameter(description = "ID de la receta de referencia") @PathVariable String id,
+                        @Parameter(description = "Cantidad máxima de recetas (máx. 20)") @RequestParam(defaultValue = "5") int limit) {
+
+                log.info("RecipeController: Buscando recetas similares a: {}", id);
+                List<SimilarRecipeDTO> recipes = similarRecipeService.findSimilar(id, limit);
                 return ResponseEntity.ok(recipes);
         }
+
+        @Operation(summary = "Firmar subida directa de imagen", description = "Devuelve la URL y los parámetros firmados para que el navegador suba la imagen directamente a Cloudinary. La respuesta de Cloudinary (public_id, version, signature, format) se envía luego como 'imageRef' al crear o actualizar la receta.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Parámetros de subida firmados"),
+                        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+        })
+        @PostMapping("/images/upload-signature")
+        public ResponseEntity<?> createImageUploadSignature() {
+                log.info("RecipeController: Emitiendo firma de subida directa de imagen");
+                ImageUploadSignatureDTO signature = imageService.createUploadSignature();
+                return ResponseEntity.ok(signature);
+        }
+
+        // Pre-serialized detail: 304 when the client has it, gzip copy when it accepts one
+        private ResponseEntity<byte[]> cachedJson(StaleWhileRevalidate.Served<RecipeJsonCache.RecipeJson> served,
+                        String ifNoneMatch, String acceptEncoding) {
+                RecipeJsonCache.RecipeJson json = served.value();
+                if (json.matches(ifNoneMatch))
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(json.etag())
+                                        .headers(staleHeaders(served)).build();
+
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                                .eTag(json.etag())
+                                .headers(staleHeaders(served))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                if (json.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip"))
+                        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(json.gzip());
+                return response.body(json.json());
+        }
+
+        // Tells the client it got the last known good copy because the database was slow or down
+        private HttpHeaders staleHeaders(StaleWhileRevalidate.Served<?> served) {
+                HttpHeaders headers = new HttpHeaders();
+                if (served.stale()) {
+                        headers.set(HttpHeaders.WARNING, "110 - \"Response is Stale\"");
+                        headers.set(HttpHeaders.AGE, String.valueOf(served.ageSeconds()));
+                }
+                return headers;
+        }
+
+        private static void checkPaging(int page, int size) {
+                if (page < 0 || size < 1 || size > MAX_PAGE_SIZE)
+                        throw new InvalidDataException(
+                                        "page debe ser mayor o igual a 0 y size estar entre 1 y " + MAX_PAGE_SIZE);
+                if ((long) (page + 1) * size > MAX_RESULT_WINDOW)
+                        throw new InvalidDataException(
+                                        "No se pueden pedir resultados más allá de los primeros " + MAX_RESULT_WINDOW);
+        }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.brenda.recetario.controllers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.brenda.recetario.exceptions.InvalidDataException;
+import com.brenda.recetario.models.RecipeCreateDTO;
+import com.brenda.recetario.models.RecipeUpdateDTO;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import jakarta.servlet.http.Part;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Reads the "recipe" part of create and update requests straight from its
+ * stream into the DTO, with readers built once from the application
+ * ObjectMapper, and runs bean validation on the result. Malformed JSON is
+ * rejected with InvalidDataException (400) at the first bad token, before
+ * the service touches the image part. The servlet container still parses
+ * the whole multipart body when the first part is requested (file parts are
+ * spooled to disk); spring.servlet.multipart.resolve-lazily only defers that
+ * until after the interceptors.
+ */
+@Component
+class RecipePartReader {
+    private final ObjectReader createReader;
+    private final ObjectReader updateReader;
+    private final Validator validator;
+
+    RecipePartReader(ObjectMapper objectMapper, Validator validator) {
+        this.createReader = objectMapper.readerFor(RecipeCreateDTO.class);
+        this.updateReader = objectMapper.readerFor(RecipeUpdateDTO.class);
+        this.validator = validator;
+    }
+
+    RecipeCreateDTO readCreate(Part part) throws IOException {
+        return read(createReader, part);
+    }
+
+    RecipeUpdateDTO readUpdate(Part part) throws IOException {
+        return read(updateReader, part);
+    }
+
+    /**
+     * Constraint violations by property path, empty when the DTO is valid.
+     * Several violations on one property are joined.
+     */
+    Map<String, String> validate(Object dto) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(dto);
+        if (violations.isEmpty())
+            return Collections.emptyMap();
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (ConstraintViolation<Object> violation : violations) {
+            errors.merge(violation.getPropertyPath().toString(), violation.getMessage(),
+                    (first, second) -> first + "; " + second);
+        }
+        return errors;
+    }
+
+    private static <T> T read(ObjectReader reader, Part part) throws IOException {
+        try (InputStream json = part.getInputStream()) {
+            T dto = reader.readValue(json);
+            if (dto == null)
+                throw new InvalidDataException("La receta está vacía");
+            return dto;
+        } catch (JacksonException e) {
+            throw new InvalidDataException("JSON de la receta inválido: " + e.getOriginalMessage());
+        }
+    }
+}
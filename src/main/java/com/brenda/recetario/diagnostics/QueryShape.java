@@ -0,0 +1,62 @@
+package com.brenda.recetario.diagnostics;
+
+import java.util.List;
+import java.util.Map;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+/**
+ * Normalized form of a query: field names and operators are kept, every
+ * literal becomes "?" and an array of literals a single ["?"]. Two searches
+ * with the same categories/fit/keyword count but other values share a shape.
+ */
+public final class QueryShape {
+    private static final BsonString PLACEHOLDER = new BsonString("?");
+    private static final JsonWriterSettings JSON = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+    private QueryShape() {
+    }
+
+    // Shape of a find, aggregate or count command
+    public static String of(String commandName, BsonDocument command) {
+        BsonDocument shape = new BsonDocument();
+        switch (commandName) {
+            case "find" -> {
+                shape.put("filter", normalize(command.get("filter", new BsonDocument())));
+                if (command.containsKey("sort")) {
+                    shape.put("sort", command.get("sort"));
+                }
+            }
+            case "aggregate" -> shape.put("pipeline", normalize(command.get("pipeline", new BsonArray())));
+            case "count" -> shape.put("query", normalize(command.get("query", new BsonDocument())));
+            default -> {
+            }
+        }
+        return commandName + " " + shape.toJson(JSON);
+    }
+
+    static BsonValue normalize(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument normalized = new BsonDocument();
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                normalized.put(entry.getKey(), normalize(entry.getValue()));
+            }
+            return normalized;
+        }
+        if (value.isArray()) {
+            BsonArray array = value.asArray();
+            boolean literals = array.stream().noneMatch(item -> item.isDocument() || item.isArray());
+            if (literals)
+                return new BsonArray(array.isEmpty() ? List.of() : List.of(PLACEHOLDER));
+            BsonArray normalized = new BsonArray();
+            array.forEach(item -> normalized.add(normalize(item)));
+            return normalized;
+        }
+        return PLACEHOLDER;
+    }
+}
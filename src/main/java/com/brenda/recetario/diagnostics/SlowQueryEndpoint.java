@@ -0,0 +1,27 @@
+package com.brenda.recetario.diagnostics;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import com.brenda.recetario.models.SlowQueryDTO;
+
+// GET /actuator/slowqueries?limit=N, only reachable when added to the exposed endpoints
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+    private static final int MAX_LIMIT = 100;
+
+    private final SlowQueryRecorder recorder;
+
+    public SlowQueryEndpoint(SlowQueryRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public List<SlowQueryDTO> slowQueries(@Nullable Integer limit) {
+        int top = limit == null ? 10 : Math.min(Math.max(limit, 1), MAX_LIMIT);
+        return recorder.report(top);
+    }
+}
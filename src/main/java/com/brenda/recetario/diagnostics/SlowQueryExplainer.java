@@ -0,0 +1,127 @@
+package com.brenda.recetario.diagnostics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs explain (executionStats) in the background on a few slow shapes per
+ * round, using the last real command of each, and stores the winning plan
+ * and how many documents and keys it examined.
+ */
+@Slf4j
+public class SlowQueryExplainer {
+    // Session/transport fields the driver adds that explain rejects or re-adds itself
+    private static final Set<String> DRIVER_FIELDS = Set.of("$db", "lsid", "$clusterTime", "$readPreference",
+            "txnNumber", "autocommit", "startTransaction", "readConcern", "apiVersion", "apiStrict",
+            "apiDeprecationErrors");
+
+    private final SlowQueryRecorder recorder;
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final Duration maxAge;
+
+    public SlowQueryExplainer(SlowQueryRecorder recorder, MongoTemplate mongoTemplate, int batchSize,
+            Duration maxAge) {
+        this.recorder = recorder;
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+        this.maxAge = maxAge;
+    }
+
+    @Scheduled(fixedDelayString = "${recipes.slow-query.explain-interval:PT1M}",
+            initialDelayString = "${recipes.slow-query.explain-interval:PT1M}")
+    public void explainSample() {
+        for (SlowQueryRecorder.ShapeStats stats : recorder.explainCandidates(batchSize, maxAge)) {
+            try {
+                BsonDocument command = new BsonDocument("explain", explainable(stats.sample()))
+                        .append("verbosity", new BsonString("executionStats"));
+                SlowQueryRecorder.Plan plan = parse(mongoTemplate.getDb().runCommand(command));
+                stats.plan(plan);
+                if (plan.collectionScan()) {
+                    log.warn("SlowQueryExplainer: COLLSCAN ({} documentos examinados): {}", plan.docsExamined(),
+                            stats.shape());
+                }
+            } catch (Exception e) {
+                log.warn("SlowQueryExplainer: No se pudo obtener el plan de {}: {}", stats.shape(), e.getMessage());
+                // Not retried until maxAge passes
+                stats.plan(new SlowQueryRecorder.Plan("ERROR: " + e.getMessage(), false, -1, -1, Instant.now()));
+            }
+        }
+    }
+
+    static BsonDocument explainable(BsonDocument command) {
+        BsonDocument copy = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (!DRIVER_FIELDS.contains(key)) {
+                copy.put(key, value);
+            }
+        });
+        return copy;
+    }
+
+    // Handles find and aggregate output, classic and slot based engine
+    static SlowQueryRecorder.Plan parse(Document explain) {
+        Document planner = find(explain, "queryPlanner");
+        Document stats = find(explain, "executionStats");
+
+        List<String> stages = new ArrayList<>();
+        if (planner != null) {
+            collectStages(planner.get("winningPlan"), stages);
+        }
+        long docs = stats != null ? number(stats.get("totalDocsExamined")) : -1;
+        long keys = stats != null ? number(stats.get("totalKeysExamined")) : -1;
+        return new SlowQueryRecorder.Plan(String.join(" > ", stages), stages.contains("COLLSCAN"), docs, keys,
+                Instant.now());
+    }
+
+    // First value under {@code key} anywhere in the document, depth first
+    private static Document find(Object node, String key) {
+        if (node instanceof Document document) {
+            if (document.get(key) instanceof Document found)
+                return found;
+            for (Object value : document.values()) {
+                Document found = find(value, key);
+                if (found != null)
+                    return found;
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                Document found = find(value, key);
+                if (found != null)
+                    return found;
+            }
+        }
+        return null;
+    }
+
+    private static void collectStages(Object node, List<String> stages) {
+        if (!(node instanceof Document plan))
+            return;
+        if (plan.get("queryPlan") instanceof Document queryPlan) {
+            collectStages(queryPlan, stages);
+            return;
+        }
+        if (plan.get("stage") instanceof String stage) {
+            stages.add(stage);
+        }
+        collectStages(plan.get("inputStage"), stages);
+        if (plan.get("inputStages") instanceof List<?> inputs) {
+            inputs.forEach(input -> collectStages(input, stages));
+        }
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number number ? number.longValue() : -1;
+    }
+}
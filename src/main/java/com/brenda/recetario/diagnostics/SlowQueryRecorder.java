@@ -0,0 +1,179 @@
+package com.brenda.recetario.diagnostics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import com.brenda.recetario.models.SlowQueryDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mongo command listener that keeps, per query shape, how many reads on the
+ * recipes collection took longer than the threshold and how long. The last
+ * slow command of each shape is kept so SlowQueryExplainer can explain it.
+ */
+@Slf4j
+public class SlowQueryRecorder implements CommandListener {
+    private static final Set<String> COMMANDS = Set.of("find", "aggregate", "count");
+    // What QueryShape and explain use; session, cluster time and the rest are left out
+    private static final List<String> KEPT_FIELDS = List.of("filter", "sort", "projection", "skip", "limit",
+            "hint", "collation", "pipeline", "query");
+
+    private final String collection;
+    private final long thresholdNanos;
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, ShapeStats> shapes = Caffeine.newBuilder().maximumSize(500).build();
+
+    private record Started(String commandName, BsonDocument command) {
+    }
+
+    public record Plan(String winningPlan, boolean collectionScan, long docsExamined, long keysExamined,
+            Instant explainedAt) {
+    }
+
+    public static class ShapeStats {
+        private final String shape;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private Instant lastSeen;
+        private BsonDocument sample;
+        private volatile Plan plan;
+
+        ShapeStats(String shape) {
+            this.shape = shape;
+        }
+
+        synchronized void record(long nanos, BsonDocument command) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            lastSeen = Instant.now();
+            sample = command;
+        }
+
+        public String shape() {
+            return shape;
+        }
+
+        public synchronized BsonDocument sample() {
+            return sample;
+        }
+
+        public Plan plan() {
+            return plan;
+        }
+
+        public void plan(Plan plan) {
+            this.plan = plan;
+        }
+
+        synchronized long totalNanos() {
+            return totalNanos;
+        }
+
+        synchronized SlowQueryDTO toDTO() {
+            long nanosPerMs = TimeUnit.MILLISECONDS.toNanos(1);
+            Plan current = plan;
+            long totalMs = totalNanos / nanosPerMs;
+            return new SlowQueryDTO(shape, count, totalMs, totalMs / Math.max(1, count), maxNanos / nanosPerMs,
+                    lastSeen,
+                    current != null ? current.winningPlan() : null,
+                    current != null ? current.collectionScan() : null,
+                    current != null ? current.docsExamined() : null,
+                    current != null ? current.keysExamined() : null,
+                    current != null ? current.explainedAt() : null);
+        }
+    }
+
+    public SlowQueryRecorder(String collection, Duration threshold) {
+        this.collection = collection;
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String name = event.getCommandName();
+        if (!COMMANDS.contains(name))
+            return;
+        BsonValue target = event.getCommand().get(name);
+        if (target == null || !target.isString() || !collection.equals(target.asString().getValue()))
+            return;
+        // The event document is only valid during the callback, so the query part is copied
+        inFlight.put(event.getRequestId(), new Started(name, queryPart(name, event.getCommand())));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Started started = inFlight.remove(event.getRequestId());
+        if (started != null) {
+            record(started.commandName(), started.command(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        inFlight.remove(event.getRequestId());
+    }
+
+    private static BsonDocument queryPart(String commandName, BsonDocument command) {
+        BsonDocument copy = new BsonDocument(commandName, command.get(commandName));
+        for (String field : KEPT_FIELDS) {
+            BsonValue value = command.get(field);
+            if (value != null) {
+                copy.put(field, copy(value));
+            }
+        }
+        return copy;
+    }
+
+    private static BsonValue copy(BsonValue value) {
+        if (value.isDocument())
+            return value.asDocument().clone();
+        if (value.isArray())
+            return value.asArray().clone();
+        return value;
+    }
+
+    void record(String commandName, BsonDocument command, long nanos) {
+        if (nanos < thresholdNanos)
+            return;
+        String shape = QueryShape.of(commandName, command);
+        shapes.get(shape, ShapeStats::new).record(nanos, command);
+        log.warn("SlowQueryRecorder: Consulta lenta ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), shape);
+    }
+
+    // Slowest shapes first, by accumulated time
+    public List<SlowQueryDTO> report(int limit) {
+        return shapes.asMap().values().stream()
+                .sorted(Comparator.comparingLong(ShapeStats::totalNanos).reversed())
+                .limit(limit)
+                .map(ShapeStats::toDTO)
+                .toList();
+    }
+
+    // Shapes never explained or explained longer than maxAge ago, slowest first
+    public List<ShapeStats> explainCandidates(int limit, Duration maxAge) {
+        Instant staleBefore = Instant.now().minus(maxAge);
+        return shapes.asMap().values().stream()
+                .filter(stats -> stats.plan() == null || stats.plan().explainedAt().isBefore(staleBefore))
+                .sorted(Comparator.comparingLong(ShapeStats::totalNanos).reversed())
+                .limit(limit)
+                .toList();
+    }
+}
@@ -0,0 +1,17 @@
+package com.brenda.recetario.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+// Uploaded image shared by every recipe using it, keyed by the SHA-256 of its content
+// (server uploads) or by "etag:"/"public_id:" plus Cloudinary's value (direct uploads)
+@Data
+@Document(collection = "image_assets")
+public class ImageAsset {
+    @Id
+    private String hash;
+    private String url;
+    private long references; // Recipes pointing at url, the asset is destroyed when it reaches 0
+}
@@ -1,9 +1,11 @@
 package com.brenda.recetario.entity;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.brenda.recetario.enums.RecipeCategory;
@@ -31,4 +33,7 @@ public class Recipe {
     private String imageUrl;
     private String normalizedTitle;
     private List<String> normalizedIngredients;
+    @Version
+    private Long version;
+    private Instant lastModified; // Set on every write, used to catch up the index snapshot
 }
@@ -0,0 +1,6 @@
+package com.brenda.recetario.enums;
+
+public enum SearchStrategy {
+    REGEX,
+    TEXT
+}
@@ -0,0 +1,9 @@
+package com.brenda.recetario.events;
+
+/**
+ * Published when this instance may have missed recipe changes made by
+ * others (a gap in the invalidation bus). Every local cache or index of
+ * recipes must be dropped or rebuilt from the database.
+ */
+public class RecipeCacheFlushEvent {
+}
@@ -0,0 +1,28 @@
+package com.brenda.recetario.events;
+
+import com.brenda.recetario.entity.Recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by RecipeService after a recipe is created, updated or deleted.
+ * {@code recipe} is the stored state, or null when the recipe was deleted.
+ * {@code remote} marks changes made by another instance and replayed here by
+ * the invalidation bus.
+ */
+@Getter
+@AllArgsConstructor
+public class RecipeChangedEvent {
+    private final String recipeId;
+    private final Recipe recipe;
+    private final boolean remote;
+
+    public RecipeChangedEvent(String recipeId, Recipe recipe) {
+        this(recipeId, recipe, false);
+    }
+
+    public boolean isDeleted() {
+        return recipe == null;
+    }
+}
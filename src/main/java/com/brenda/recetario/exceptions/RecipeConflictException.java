@@ -0,0 +1,7 @@
+package com.brenda.recetario.exceptions;
+
+public class RecipeConflictException extends RuntimeException {
+    public RecipeConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,36 @@
+package com.brenda.recetario.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transport inside a single JVM: publish delivers synchronously to every
+ * subscriber. For tests and single instance setups; several buses sharing
+ * one instance behave like several nodes.
+ */
+public class InMemoryRecipeChangeTransport implements RecipeChangeTransport {
+    private final List<Consumer<RecipeChange>> listeners = new CopyOnWriteArrayList<>();
+    private long sequence;
+
+    @Override
+    public synchronized void publish(RecipeChange change) {
+        RecipeChange sequenced = new RecipeChange(++sequence, change.recipeId(), change.deleted(), change.origin());
+        listeners.forEach(listener -> listener.accept(sequenced));
+    }
+
+    @Override
+    public synchronized long lastSequence() {
+        return sequence;
+    }
+
+    @Override
+    public void subscribe(long afterSequence, Consumer<RecipeChange> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        listeners.clear();
+    }
+}
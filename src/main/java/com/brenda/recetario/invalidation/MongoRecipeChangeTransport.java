@@ -0,0 +1,134 @@
+package com.brenda.recetario.invalidation;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.CursorType;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transport over a capped collection read with a tailable cursor, so every
+ * instance sees the changes in insertion order without polling. Sequence
+ * numbers come from a counter document. Once the capped collection wraps
+ * around, a slow instance finds a gap and flushes.
+ */
+@Slf4j
+public class MongoRecipeChangeTransport implements RecipeChangeTransport {
+    static final String COLLECTION = "recipe_changes";
+    private static final String COUNTERS = "counters";
+    private static final long RETRY_MILLIS = 1_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final long cappedSize;
+
+    private volatile boolean running;
+    private Thread tailer;
+
+    public MongoRecipeChangeTransport(MongoTemplate mongoTemplate, long cappedSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.cappedSize = cappedSize;
+    }
+
+    @Override
+    public void publish(RecipeChange change) {
+        Document counter = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(COLLECTION)),
+                new Update().inc("seq", 1L), FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class, COUNTERS);
+        long sequence = ((Number) counter.get("seq")).longValue();
+
+        mongoTemplate.insert(new Document("seq", sequence)
+                .append("recipeId", change.recipeId())
+                .append("deleted", change.deleted())
+                .append("origin", change.origin())
+                .append("at", new Date()), COLLECTION);
+    }
+
+    @Override
+    public long lastSequence() {
+        Document counter = mongoTemplate.findById(COLLECTION, Document.class, COUNTERS);
+        return counter == null ? 0 : ((Number) counter.get("seq")).longValue();
+    }
+
+    @Override
+    public synchronized void subscribe(long afterSequence, Consumer<RecipeChange> listener) {
+        createCollection();
+        running = true;
+        tailer = new Thread(() -> tail(afterSequence, listener), "recipe-change-tailer");
+        tailer.setDaemon(true);
+        tailer.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (tailer != null) {
+            tailer.interrupt();
+        }
+    }
+
+    private void createCollection() {
+        if (mongoTemplate.collectionExists(COLLECTION))
+            return;
+        try {
+            mongoTemplate.createCollection(COLLECTION, CollectionOptions.empty().capped().size(cappedSize));
+            log.info("MongoRecipeChangeTransport: Colección {} creada ({} bytes)", COLLECTION, cappedSize);
+        } catch (Exception e) {
+            // Another instance created it first
+            log.debug("MongoRecipeChangeTransport: Colección {} ya existente", COLLECTION, e);
+        }
+    }
+
+    private void tail(long afterSequence, Consumer<RecipeChange> listener) {
+        long last = afterSequence;
+        while (running) {
+            // A tailable cursor dies on an empty collection, so it is reopened from the last sequence
+            try (MongoCursor<Document> cursor = mongoTemplate.getCollection(COLLECTION)
+                    .find(Filters.gt("seq", last))
+                    .cursorType(CursorType.TailableAwait)
+                    .maxAwaitTime(1, TimeUnit.SECONDS)
+                    .noCursorTimeout(true)
+                    .iterator()) {
+                while (running) {
+                    Document document = cursor.tryNext();
+                    if (document == null) {
+                        if (cursor.getServerCursor() == null)
+                            break;
+                        continue;
+                    }
+                    RecipeChange change = new RecipeChange(((Number) document.get("seq")).longValue(),
+                            document.getString("recipeId"), document.getBoolean("deleted", false),
+                            document.getString("origin"));
+                    last = Math.max(last, change.sequence());
+                    listener.accept(change);
+                }
+            } catch (Exception e) {
+                if (running) {
+                    log.warn("MongoRecipeChangeTransport: Error leyendo cambios de recetas, se reintenta: {}",
+                            e.getMessage());
+                }
+            }
+            sleep();
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(RETRY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.brenda.recetario.invalidation;
+
+/**
+ * A recipe write as seen on the bus. {@code sequence} is assigned by the
+ * transport and grows by one per change, {@code origin} is the instance
+ * that made it.
+ */
+public record RecipeChange(long sequence, String recipeId, boolean deleted, String origin) {
+}
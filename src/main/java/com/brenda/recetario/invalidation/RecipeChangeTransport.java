@@ -0,0 +1,21 @@
+package com.brenda.recetario.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries recipe changes between instances. Implementations assign the
+ * sequence number on publish and deliver changes in sequence order to every
+ * subscriber, including the publishing instance.
+ */
+public interface RecipeChangeTransport {
+
+    void publish(RecipeChange change);
+
+    // Sequence of the newest change published so far, 0 when there is none
+    long lastSequence();
+
+    // Delivers the changes after {@code afterSequence}, on a transport thread
+    void subscribe(long afterSequence, Consumer<RecipeChange> listener);
+
+    void close();
+}
@@ -0,0 +1,134 @@
+package com.brenda.recetario.invalidation;
+
+import java.time.Duration;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.events.RecipeCacheFlushEvent;
+import com.brenda.recetario.events.RecipeChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the local caches and indexes of every instance in line with writes
+ * made on the others. Local RecipeChangedEvents are published on the
+ * transport; changes from other instances are read back from the database
+ * and republished here as remote RecipeChangedEvents, so the usual listeners
+ * apply them. Changes are applied in sequence order; one that arrives early
+ * waits up to {@code gapTimeout} for the missing ones, and only if they never
+ * come are they considered lost, triggering a RecipeCacheFlushEvent.
+ *
+ * Metrics: {@code recipes.invalidation.applied} and
+ * {@code recipes.invalidation.flushes}.
+ */
+@Slf4j
+public class RecipeInvalidationBus {
+    private final RecipeChangeTransport transport;
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final long gapTimeoutNanos;
+
+    private long lastSequence;
+    // Changes received ahead of a missing sequence number
+    private final NavigableMap<Long, RecipeChange> pending = new TreeMap<>();
+    private long waitingSince;
+
+    public RecipeInvalidationBus(RecipeChangeTransport transport, MongoTemplate mongoTemplate,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry, Duration gapTimeout) {
+        this.transport = transport;
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.gapTimeoutNanos = gapTimeout.toNanos();
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        lastSequence = transport.lastSequence();
+        transport.subscribe(lastSequence, this::apply);
+        log.info("RecipeInvalidationBus: Instancia {} escuchando cambios desde la secuencia {}", nodeId,
+                lastSequence);
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.isRemote())
+            return;
+        try {
+            transport.publish(new RecipeChange(0, event.getRecipeId(), event.isDeleted(), nodeId));
+        } catch (Exception e) {
+            // The write already happened; other instances catch up on their cache TTLs
+            log.error("RecipeInvalidationBus: No se pudo publicar el cambio de la receta {}", event.getRecipeId(), e);
+        }
+    }
+
+    synchronized void apply(RecipeChange change) {
+        if (change.sequence() <= lastSequence)
+            return;
+        if (change.sequence() > lastSequence + 1) {
+            // Concurrent publishers can land out of order: hold it until the missing ones show up
+            if (pending.isEmpty()) {
+                waitingSince = System.nanoTime();
+            }
+            pending.put(change.sequence(), change);
+            return;
+        }
+        deliver(change);
+        deliverPending();
+    }
+
+    /**
+     * Gives up on the changes missing before the pending ones once they have
+     * been awaited for {@code gapTimeout}: they were lost (a publisher failed
+     * halfway or the capped collection wrapped around), so the caches are
+     * flushed and the pending changes applied.
+     */
+    @Scheduled(fixedDelayString = "${recipes.invalidation.gap-check-interval:PT1S}")
+    public void checkGaps() {
+        synchronized (this) {
+            if (pending.isEmpty() || System.nanoTime() - waitingSince < gapTimeoutNanos)
+                return;
+            log.warn("RecipeInvalidationBus: Se perdieron los cambios {} a {}, se vacían las cachés",
+                    lastSequence + 1, pending.firstKey() - 1);
+            meterRegistry.counter("recipes.invalidation.flushes").increment();
+            lastSequence = pending.firstKey() - 1;
+            deliverPending();
+        }
+        // Outside the lock: resyncing the indexes reads the whole collection and must not hold up apply()
+        eventPublisher.publishEvent(new RecipeCacheFlushEvent());
+    }
+
+    private void deliverPending() {
+        while (!pending.isEmpty() && pending.firstKey() == lastSequence + 1) {
+            deliver(pending.pollFirstEntry().getValue());
+        }
+        if (!pending.isEmpty()) {
+            waitingSince = System.nanoTime();
+        }
+    }
+
+    private void deliver(RecipeChange change) {
+        lastSequence = change.sequence();
+        if (nodeId.equals(change.origin()))
+            return;
+        // The bus only says what changed; the current state comes from the database
+        Recipe recipe = change.deleted() ? null : mongoTemplate.findById(change.recipeId(), Recipe.class);
+        meterRegistry.counter("recipes.invalidation.applied").increment();
+        eventPublisher.publishEvent(new RecipeChangedEvent(change.recipeId(), recipe, true));
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+}
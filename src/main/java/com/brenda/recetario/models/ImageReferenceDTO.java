@@ -0,0 +1,23 @@
+package com.brenda.recetario.models;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Values returned by the image store after a direct upload, verified by signature
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ImageReferenceDTO {
+    @NotBlank
+    @JsonAlias("public_id") // Cloudinary's upload response can be forwarded as is
+    private String publicId;
+    @NotBlank
+    private String version;
+    @NotBlank
+    private String signature;
+    private String format;
+}
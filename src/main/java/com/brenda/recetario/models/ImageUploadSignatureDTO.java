@@ -0,0 +1,18 @@
+package com.brenda.recetario.models;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Everything the browser needs to POST the file straight to the image store
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ImageUploadSignatureDTO {
+    private String uploadUrl;
+    // Form fields to send along with "file"
+    private Map<String, Object> params;
+    private long expiresAt;
+}
@@ -0,0 +1,13 @@
+package com.brenda.recetario.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class IngredientSuggestionDTO {
+    private String ingredient;
+    private int recipes;
+}
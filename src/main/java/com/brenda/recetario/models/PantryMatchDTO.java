@@ -0,0 +1,16 @@
+package com.brenda.recetario.models;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class PantryMatchDTO {
+    private RecipeFilteredResponseDTO recipe;
+    private int missingCount;
+    private List<String> missingIngredients;
+}
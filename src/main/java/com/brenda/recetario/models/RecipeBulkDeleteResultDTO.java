@@ -0,0 +1,17 @@
+package com.brenda.recetario.models;
+
+import com.brenda.recetario.enums.BulkDeleteStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class RecipeBulkDeleteResultDTO {
+    private String id;
+    private BulkDeleteStatus status;
+    // Null when the recipe had no image, false when the image could not be removed from storage
+    private Boolean imageDeleted;
+}
@@ -4,6 +4,7 @@ import java.util.List;
 
 import com.brenda.recetario.enums.RecipeCategory;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -21,4 +22,7 @@ public class RecipeCreateDTO {
     private String instructions;
     @NotNull
     private Boolean fit;
+    // Image uploaded directly to the store, used instead of the multipart file
+    @Valid
+    private ImageReferenceDTO imageRef;
 }
@@ -0,0 +1,18 @@
+package com.brenda.recetario.models;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class RecipeFacetedSearchResponseDTO {
+    private List<RecipeFilteredResponseDTO> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private RecipeFacetsDTO facets;
+}
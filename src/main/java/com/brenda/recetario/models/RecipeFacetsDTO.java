@@ -0,0 +1,19 @@
+package com.brenda.recetario.models;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.brenda.recetario.enums.RecipeCategory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class RecipeFacetsDTO {
+    private Map<RecipeCategory, Long> categories = new EnumMap<>(RecipeCategory.class);
+    private long fit;
+    private long nonFit;
+}
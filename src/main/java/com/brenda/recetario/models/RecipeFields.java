@@ -0,0 +1,64 @@
+package com.brenda.recetario.models;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import com.brenda.recetario.exceptions.InvalidDataException;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+/**
+ * Sparse fieldsets for the recipe read endpoints ("fields=title,imageUrl").
+ * The same set is used for the Mongo projection and for the JSON filter.
+ */
+public final class RecipeFields {
+    public static final String FILTER_ID = "recipeFields";
+
+    public static final Set<String> DETAIL = Set.of(
+            "id", "title", "categories", "ingredients", "instructions", "fit", "imageUrl", "version");
+    public static final Set<String> SUMMARY = Set.of(
+            "id", "title", "categories", "fit", "imageUrl");
+
+    private RecipeFields() {
+    }
+
+    /**
+     * Validates the requested fields against the allowed ones. Returns null when
+     * nothing was requested, meaning "all fields". The id is always included.
+     */
+    public static Set<String> parse(Collection<String> requested, Set<String> allowed) {
+        if (requested == null || requested.isEmpty())
+            return null;
+
+        Set<String> fields = new LinkedHashSet<>();
+        fields.add("id");
+        for (String field : requested) {
+            if (field == null || field.isBlank())
+                continue;
+            String trimmed = field.trim();
+            if (!allowed.contains(trimmed)) {
+                throw new InvalidDataException("Campo desconocido en 'fields': " + trimmed);
+            }
+            fields.add(trimmed);
+        }
+        return fields;
+    }
+
+    public static List<String> projection(Set<String> fields, Set<String> defaults) {
+        return List.copyOf(fields != null ? fields : defaults);
+    }
+
+    public static Object filter(Object body, Set<String> fields) {
+        if (fields == null)
+            return body;
+
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return value;
+    }
+}
@@ -4,12 +4,14 @@ import java.util.List;
 
 import com.brenda.recetario.entity.Recipe;
 import com.brenda.recetario.enums.RecipeCategory;
+import com.fasterxml.jackson.annotation.JsonFilter;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @NoArgsConstructor
 @Data
+@JsonFilter(RecipeFields.FILTER_ID)
 public class RecipeFilteredResponseDTO {
     private String id;
     private String title;
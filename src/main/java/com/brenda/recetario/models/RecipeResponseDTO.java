@@ -4,12 +4,14 @@ import java.util.List;
 
 import com.brenda.recetario.entity.Recipe;
 import com.brenda.recetario.enums.RecipeCategory;
+import com.fasterxml.jackson.annotation.JsonFilter;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @NoArgsConstructor
 @Data
+@JsonFilter(RecipeFields.FILTER_ID)
 public class RecipeResponseDTO {
     private String id;
     private String title;
@@ -18,6 +20,7 @@ public class RecipeResponseDTO {
     private String instructions;
     private Boolean fit;
     private String imageUrl;
+    private Long version;
 
     public RecipeResponseDTO(Recipe recipe) {
         this.id = recipe.getId();
@@ -27,5 +30,6 @@ public class RecipeResponseDTO {
         this.instructions = recipe.getInstructions();
         this.fit = recipe.getFit();
         this.imageUrl = recipe.getImageUrl();
+        this.version = recipe.getVersion();
     }
 }
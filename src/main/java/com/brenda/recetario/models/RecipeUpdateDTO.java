@@ -4,23 +4,31 @@ import java.util.List;
 
 import com.brenda.recetario.enums.RecipeCategory;
 
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotEmpty;
-import jakarta.validation.constraints.NotNull;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
+// Partial update: null fields are left untouched, present ones must be valid
 @Data
 public class RecipeUpdateDTO {
+    private static final String NOT_BLANK = "(?s).*\\S.*";
+
     private String id;
-    @NotBlank
+    @Pattern(regexp = NOT_BLANK, message = "no debe estar vacío")
     private String title;
-    @NotEmpty
+    @Size(min = 1, message = "no debe estar vacío")
     private List<RecipeCategory> categories;
-    @NotEmpty
+    @Size(min = 1, message = "no debe estar vacío")
     private List<String> ingredients;
-    @NotBlank
+    @Pattern(regexp = NOT_BLANK, message = "no debe estar vacío")
     private String instructions;
-    @NotNull
     private Boolean fit;
     private String imageUrl;
+    // Image uploaded directly to the store, used instead of the multipart file
+    @Valid
+    private ImageReferenceDTO imageRef;
+    // Version the client read; when present, a newer version in the database means 409.
+    // Optional: without it the update is applied unchecked and the last write wins
+    private Long version;
 }
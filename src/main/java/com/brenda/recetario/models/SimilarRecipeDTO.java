@@ -0,0 +1,14 @@
+package com.brenda.recetario.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class SimilarRecipeDTO {
+    private RecipeFilteredResponseDTO recipe;
+    // Estimated Jaccard similarity of the ingredient sets, between 0 and 1
+    private double similarity;
+}
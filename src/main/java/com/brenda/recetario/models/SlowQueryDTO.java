@@ -0,0 +1,25 @@
+package com.brenda.recetario.models;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class SlowQueryDTO {
+    private String shape;
+    private long count;
+    private long totalMs;
+    private long avgMs;
+    private long maxMs;
+    private Instant lastSeen;
+    // From the last background explain, null until the shape is sampled
+    private String winningPlan;
+    private Boolean collectionScan;
+    private Long docsExamined;
+    private Long keysExamined;
+    private Instant explainedAt;
+}
@@ -0,0 +1,35 @@
+package com.brenda.recetario.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Global cap on expensive requests in flight. Acquiring is a CAS loop that
+ * never blocks: over the limit the request is rejected right away, before
+ * queueing makes every response slow.
+ */
+public class ConcurrencyLimiter {
+    private final int maxConcurrent;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConcurrencyLimiter(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrent)
+                return false;
+            if (inFlight.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
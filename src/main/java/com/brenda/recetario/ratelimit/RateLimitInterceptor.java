@@ -0,0 +1,136 @@
+package com.brenda.recetario.ratelimit;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.brenda.recetario.exceptions.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Admission control for /recipes: a token bucket per client IP and tier
+ * (reads, searches, writes), plus a global limit of searches/writes in
+ * flight. Rejections become 429 with Retry-After. Behind a proxy the
+ * client IP is only the real one with {@code server.forward-headers-strategy}
+ * (set in the prod profile); otherwise every user shares the proxy's bucket.
+ */
+@Slf4j
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String PERMIT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".permit";
+    // Every this many requested results a search costs one more token
+    private static final int RESULTS_PER_TOKEN = 100;
+
+    private final Map<RateLimitTier, int[]> budgets = new EnumMap<>(RateLimitTier.class);
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Cache<BucketKey, TokenBucket> buckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .maximumSize(100_000)
+            .build();
+
+    private record BucketKey(String client, RateLimitTier tier) {
+    }
+
+    public RateLimitInterceptor(MeterRegistry meterRegistry,
+            @Value("${recipes.ratelimit.read.capacity:120}") int readCapacity,
+            @Value("${recipes.ratelimit.read.per-minute:120}") int readPerMinute,
+            @Value("${recipes.ratelimit.search.capacity:30}") int searchCapacity,
+            @Value("${recipes.ratelimit.search.per-minute:30}") int searchPerMinute,
+            @Value("${recipes.ratelimit.write.capacity:10}") int writeCapacity,
+            @Value("${recipes.ratelimit.write.per-minute:10}") int writePerMinute,
+            @Value("${recipes.ratelimit.max-concurrent:32}") int maxConcurrent) {
+        this.meterRegistry = meterRegistry;
+        this.concurrencyLimiter = new ConcurrencyLimiter(maxConcurrent);
+        budgets.put(RateLimitTier.READ, new int[] { readCapacity, readPerMinute });
+        budgets.put(RateLimitTier.SEARCH, new int[] { searchCapacity, searchPerMinute });
+        budgets.put(RateLimitTier.WRITE, new int[] { writeCapacity, writePerMinute });
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) {
+        RateLimitTier tier = tierOf(request);
+        if (tier == null)
+            return true;
+
+        String client = request.getRemoteAddr();
+        int[] budget = budgets.get(tier);
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(new BucketKey(client, tier),
+                key -> new TokenBucket(budget[0], budget[1], now));
+
+        long waitNanos = bucket.tryConsume(Math.min(cost(tier, request), budget[0]), now);
+        if (waitNanos > 0) {
+            reject(tier, "rate");
+            log.warn("RateLimitInterceptor: Límite de {} superado por {}", tier, client);
+            throw new TooManyRequestsException("Demasiadas solicitudes. Intente nuevamente en unos segundos.",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+        }
+
+        if (tier != RateLimitTier.READ) {
+            if (!concurrencyLimiter.tryAcquire()) {
+                reject(tier, "concurrency");
+                log.warn("RateLimitInterceptor: Servidor saturado, se rechaza {} de {}", tier, client);
+                throw new TooManyRequestsException("El servidor está ocupado. Intente nuevamente en unos segundos.", 1);
+            }
+            request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            concurrencyLimiter.release();
+        }
+    }
+
+    int inFlight() {
+        return concurrencyLimiter.inFlight();
+    }
+
+    static RateLimitTier tierOf(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        if ("OPTIONS".equals(method) || "HEAD".equals(method))
+            return null;
+        if (!"GET".equals(method))
+            return RateLimitTier.WRITE;
+        if (path.startsWith("/recipes/search"))
+            return RateLimitTier.SEARCH;
+        return RateLimitTier.READ;
+    }
+
+    // Large pages cost more, so size=1000 drains the search budget ten times faster
+    private static int cost(RateLimitTier tier, HttpServletRequest request) {
+        if (tier != RateLimitTier.SEARCH)
+            return 1;
+        try {
+            String size = request.getParameter("size");
+            return size == null ? 1 : 1 + Math.max(0, Integer.parseInt(size)) / RESULTS_PER_TOKEN;
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private void reject(RateLimitTier tier, String reason) {
+        meterRegistry.counter("recipes.ratelimit.rejected", "tier", tier.name().toLowerCase(), "reason", reason)
+                .increment();
+    }
+}
@@ -0,0 +1,8 @@
+package com.brenda.recetario.ratelimit;
+
+// Separate budgets per kind of request
+public enum RateLimitTier {
+    READ,
+    SEARCH,
+    WRITE
+}
@@ -0,0 +1,38 @@
+package com.brenda.recetario.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket stored as a single "theoretical arrival time"
+ * (GCRA): each token moves it forward by the refill interval, and a request
+ * fits while it stays within {@code capacity} intervals of now. One CAS per
+ * request, no refill thread.
+ */
+public class TokenBucket {
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong arrival;
+
+    public TokenBucket(int capacity, int tokensPerMinute, long nowNanos) {
+        this.nanosPerToken = 60_000_000_000L / Math.max(1, tokensPerMinute);
+        this.burstNanos = nanosPerToken * Math.max(1, capacity);
+        this.arrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes {@code tokens} if available. Returns 0 on success, otherwise the
+     * nanoseconds to wait until they would be.
+     */
+    public long tryConsume(int tokens, long nowNanos) {
+        long cost = nanosPerToken * tokens;
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, nowNanos) + cost;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0)
+                return wait;
+            if (arrival.compareAndSet(current, next))
+                return 0;
+        }
+    }
+}
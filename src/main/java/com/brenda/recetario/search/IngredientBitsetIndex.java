@@ -0,0 +1,260 @@
+package com.brenda.recetario.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.brenda.recetario.utils.TextNormalizer;
+
+/**
+ * Maps every normalized ingredient to an integer and keeps one bitset per
+ * recipe, so "what can I cook with this pantry" is a popcount of
+ * {@code recipe & ~pantry} over 64 ingredients at a time. Each word of an
+ * ingredient points to the ingredients that contain it, so building a pantry
+ * only looks at the candidates of each pantry word, and ingredient ids are
+ * recycled once no recipe uses them.
+ */
+public class IngredientBitsetIndex {
+    private static final Comparator<Match> BEST_FIRST = Comparator
+            .comparingInt(Match::missing)
+            .thenComparing(Comparator.comparingInt(Match::matched).reversed());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    // Recipes using each ingredient id, to free the id with the last one
+    private int[] termRefs = new int[64];
+    private final Deque<Integer> freeTerms = new ArrayDeque<>();
+    private final Map<String, List<Integer>> termsByWord = new HashMap<>();
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private String[] recipeIds = new String[64];
+    private long[][] bitsets = new long[64][];
+    private int slotCount;
+
+    public record Match(String recipeId, int missing, int matched) {
+    }
+
+    public void add(String recipeId, Collection<String> ingredients) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(recipeId);
+
+            long[] bits = new long[0];
+            for (String ingredient : ingredients) {
+                int id = dictionary.computeIfAbsent(ingredient, this::newTerm);
+                int word = id >>> 6;
+                if (word >= bits.length) {
+                    bits = Arrays.copyOf(bits, word + 1);
+                }
+                if ((bits[word] & 1L << id) == 0) {
+                    bits[word] |= 1L << id;
+                    termRefs[id]++;
+                }
+            }
+            if (bits.length == 0)
+                return;
+
+            int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+            if (slot >= recipeIds.length) {
+                recipeIds = Arrays.copyOf(recipeIds, recipeIds.length * 2);
+                bitsets = Arrays.copyOf(bitsets, bitsets.length * 2);
+            }
+            recipeIds[slot] = recipeId;
+            bitsets[slot] = bits;
+            slots.put(recipeId, slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String recipeId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            dictionary.clear();
+            terms.clear();
+            termRefs = new int[64];
+            freeTerms.clear();
+            termsByWord.clear();
+            slots.clear();
+            freeSlots.clear();
+            recipeIds = new String[64];
+            bitsets = new long[64][];
+            slotCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Pantry bitset. A pantry word also covers the dictionary entries that
+     * contain it as a whole word ("harina" covers "harina leudante").
+     */
+    public long[] pantry(Collection<String> pantryTerms) {
+        lock.readLock().lock();
+        try {
+            long[] pantry = new long[(terms.size() >>> 6) + 1];
+            for (String pantryTerm : pantryTerms) {
+                List<String> words = words(pantryTerm);
+                if (words.isEmpty())
+                    continue;
+                for (int id : termsByWord.getOrDefault(words.get(0), List.of())) {
+                    if (TextNormalizer.containsWord(terms.get(id), pantryTerm)) {
+                        pantry[id >>> 6] |= 1L << id;
+                    }
+                }
+            }
+            return pantry;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recipes missing at most {@code maxMissing} ingredients from the pantry,
+     * fewest missing first and then most matched ingredients.
+     */
+    public List<Match> query(long[] pantry, int maxMissing) {
+        lock.readLock().lock();
+        try {
+            List<Match> matches = new ArrayList<>();
+            for (int slot = 0; slot < slotCount; slot++) {
+                long[] bits = bitsets[slot];
+                if (bits == null)
+                    continue;
+
+                int missing = 0;
+                int total = 0;
+                for (int w = 0; w < bits.length && missing <= maxMissing; w++) {
+                    long have = w < pantry.length ? pantry[w] : 0L;
+                    missing += Long.bitCount(bits[w] & ~have);
+                    total += Long.bitCount(bits[w]);
+                }
+                if (missing <= maxMissing) {
+                    matches.add(new Match(recipeIds[slot], missing, total - missing));
+                }
+            }
+            matches.sort(BEST_FIRST);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> missingIngredients(String recipeId, long[] pantry) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(recipeId);
+            if (slot == null)
+                return List.of();
+
+            List<String> missing = new ArrayList<>();
+            long[] bits = bitsets[slot];
+            for (int w = 0; w < bits.length; w++) {
+                long diff = bits[w] & ~(w < pantry.length ? pantry[w] : 0L);
+                while (diff != 0) {
+                    int bit = Long.numberOfTrailingZeros(diff);
+                    missing.add(terms.get((w << 6) + bit));
+                    diff &= diff - 1;
+                }
+            }
+            return missing;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int newTerm(String term) {
+        int id;
+        if (freeTerms.isEmpty()) {
+            id = terms.size();
+            terms.add(term);
+            if (id >= termRefs.length) {
+                termRefs = Arrays.copyOf(termRefs, termRefs.length * 2);
+            }
+        } else {
+            id = freeTerms.pop();
+            terms.set(id, term);
+        }
+        for (String word : words(term)) {
+            termsByWord.computeIfAbsent(word, key -> new ArrayList<>()).add(id);
+        }
+        return id;
+    }
+
+    private void releaseTerm(int id) {
+        if (--termRefs[id] > 0)
+            return;
+        String term = terms.set(id, null);
+        dictionary.remove(term);
+        for (String word : words(term)) {
+            List<Integer> ids = termsByWord.get(word);
+            ids.remove(Integer.valueOf(id));
+            if (ids.isEmpty()) {
+                termsByWord.remove(word);
+            }
+        }
+        freeTerms.push(id);
+    }
+
+    // Same word boundaries as TextNormalizer.containsWord
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private void removeLocked(String recipeId) {
+        Integer slot = slots.remove(recipeId);
+        if (slot == null)
+            return;
+        long[] bits = bitsets[slot];
+        for (int w = 0; w < bits.length; w++) {
+            long used = bits[w];
+            while (used != 0) {
+                releaseTerm((w << 6) + Long.numberOfTrailingZeros(used));
+                used &= used - 1;
+            }
+        }
+        recipeIds[slot] = null;
+        bitsets[slot] = null;
+        freeSlots.push(slot);
+    }
+}
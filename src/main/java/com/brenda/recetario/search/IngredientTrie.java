@@ -0,0 +1,223 @@
+package com.brenda.recetario.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix tree of normalized ingredients with the number of recipes using
+ * each one. Children are kept in sorted parallel arrays instead of maps, and
+ * every node knows the best count below it, so the most popular completions
+ * come out best-first without walking the whole subtree.
+ */
+public class IngredientTrie {
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int distinctTerms;
+
+    public record Suggestion(String term, int count) {
+    }
+
+    public void add(String term) {
+        if (term == null || term.isEmpty())
+            return;
+
+        lock.writeLock().lock();
+        try {
+            Node[] path = new Node[term.length() + 1];
+            Node node = root;
+            path[0] = node;
+            for (int i = 0; i < term.length(); i++) {
+                node = node.childOrCreate(term.charAt(i));
+                path[i + 1] = node;
+            }
+            if (node.count++ == 0) {
+                node.term = term;
+                distinctTerms++;
+            }
+            for (Node n : path) {
+                n.maxCount = Math.max(n.maxCount, node.count);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String term) {
+        if (term == null || term.isEmpty())
+            return;
+
+        lock.writeLock().lock();
+        try {
+            Node[] path = new Node[term.length() + 1];
+            Node node = root;
+            path[0] = node;
+            for (int i = 0; i < term.length(); i++) {
+                node = node.child(term.charAt(i));
+                if (node == null)
+                    return;
+                path[i + 1] = node;
+            }
+            if (node.count == 0)
+                return;
+            if (--node.count == 0) {
+                node.term = null;
+                distinctTerms--;
+            }
+
+            // Recompute the best counts bottom-up and drop empty branches
+            for (int i = path.length - 1; i >= 0; i--) {
+                Node n = path[i];
+                n.recomputeMax();
+                if (i > 0 && n.maxCount == 0) {
+                    path[i - 1].removeChild(term.charAt(i - 1));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.keys = NO_KEYS;
+            root.children = NO_CHILDREN;
+            root.count = 0;
+            root.maxCount = 0;
+            distinctTerms = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return distinctTerms;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Most used terms starting with {@code prefix}, by count. On equal counts
+     * the completion closer to the prefix tends to come first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        if (prefix == null || limit <= 0)
+            return List.of();
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            if (node == null || node.maxCount == 0)
+                return List.of();
+
+            List<Suggestion> result = new ArrayList<>(limit);
+            PriorityQueue<Candidate> queue = new PriorityQueue<>(Candidate.BEST_FIRST);
+            queue.add(new Candidate(node, false));
+
+            while (!queue.isEmpty() && result.size() < limit) {
+                Candidate candidate = queue.poll();
+                if (candidate.terminal) {
+                    result.add(new Suggestion(candidate.node.term, candidate.node.count));
+                    continue;
+                }
+                if (candidate.node.count > 0) {
+                    queue.add(new Candidate(candidate.node, true));
+                }
+                for (Node child : candidate.node.children) {
+                    queue.add(new Candidate(child, false));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Candidate(Node node, boolean terminal) {
+        // A terminal ranks by its own count, a subtree by the best count inside it.
+        // On ties terminals go first so the result stays deterministic.
+        static final Comparator<Candidate> BEST_FIRST = Comparator
+                .comparingInt(Candidate::priority).reversed()
+                .thenComparing(Candidate::terminal, Comparator.reverseOrder())
+                .thenComparing(c -> c.terminal ? c.node.term : "");
+
+        int priority() {
+            return terminal ? node.count : node.maxCount;
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int count;
+        private int maxCount;
+        private String term;
+
+        Node child(char key) {
+            int i = Arrays.binarySearch(keys, key);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char key) {
+            int i = Arrays.binarySearch(keys, key);
+            if (i >= 0)
+                return children[i];
+
+            int insertAt = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+
+            Node child = new Node();
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = child;
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char key) {
+            int i = Arrays.binarySearch(keys, key);
+            if (i < 0)
+                return;
+            if (keys.length == 1) {
+                keys = NO_KEYS;
+                children = NO_CHILDREN;
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void recomputeMax() {
+            int max = count;
+            for (Node child : children) {
+                max = Math.max(max, child.maxCount);
+            }
+            maxCount = max;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.brenda.recetario.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * MinHash signatures of ingredient sets plus a banded LSH index. Two recipes
+ * with Jaccard similarity s share at least one bucket with probability
+ * 1 - (1 - s^rows)^bands: more rows per band favours precision, more bands
+ * favours recall. Similarity is then estimated from the signatures.
+ */
+public class MinHashLshIndex {
+    private static final long PRIME = (1L << 61) - 1;
+
+    private final int bands;
+    private final int rows;
+    private final long[] hashA;
+    private final long[] hashB;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, int[]> signatures = new HashMap<>();
+    private final List<Map<Integer, Set<String>>> buckets;
+
+    public record Neighbour(String recipeId, double similarity) {
+    }
+
+    public MinHashLshIndex(int bands, int rows, long seed) {
+        this.bands = bands;
+        this.rows = rows;
+
+        Random random = new Random(seed);
+        int hashes = bands * rows;
+        hashA = new long[hashes];
+        hashB = new long[hashes];
+        for (int i = 0; i < hashes; i++) {
+            hashA[i] = 1 + (random.nextLong() >>> 4) % (PRIME - 1);
+            hashB[i] = (random.nextLong() >>> 4) % PRIME;
+        }
+
+        buckets = new ArrayList<>(bands);
+        for (int b = 0; b < bands; b++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    public int[] signature(Collection<String> ingredients) {
+        int[] signature = new int[hashA.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String ingredient : ingredients) {
+            long x = mix(ingredient.hashCode());
+            for (int i = 0; i < signature.length; i++) {
+                int h = (int) (hash(hashA[i], x, hashB[i]) & 0x7fffffff);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    public void add(String recipeId, Collection<String> ingredients) {
+        if (ingredients.isEmpty())
+            return;
+        int[] signature = signature(ingredients);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(recipeId);
+            signatures.put(recipeId, signature);
+            for (int b = 0; b < bands; b++) {
+                buckets.get(b).computeIfAbsent(bandKey(signature, b), k -> new HashSet<>()).add(recipeId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String recipeId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            signatures.clear();
+            buckets.forEach(Map::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(String recipeId) {
+        lock.readLock().lock();
+        try {
+            return signatures.containsKey(recipeId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recipes sharing at least one band with {@code recipeId}, whose estimated
+     * Jaccard similarity is at least {@code minSimilarity}, most similar first.
+     */
+    public List<Neighbour> similar(String recipeId, int limit, double minSimilarity) {
+        lock.readLock().lock();
+        try {
+            int[] signature = signatures.get(recipeId);
+            if (signature == null)
+                return List.of();
+
+            Set<String> candidates = new HashSet<>();
+            for (int b = 0; b < bands; b++) {
+                Set<String> bucket = buckets.get(b).get(bandKey(signature, b));
+                if (bucket != null) {
+                    candidates.addAll(bucket);
+                }
+            }
+            candidates.remove(recipeId);
+
+            List<Neighbour> neighbours = new ArrayList<>();
+            for (String candidate : candidates) {
+                double similarity = estimate(signature, signatures.get(candidate));
+                if (similarity >= minSimilarity) {
+                    neighbours.add(new Neighbour(candidate, similarity));
+                }
+            }
+            neighbours.sort(Comparator.comparingDouble(Neighbour::similarity).reversed()
+                    .thenComparing(Neighbour::recipeId));
+            return neighbours.size() > limit ? neighbours.subList(0, limit) : neighbours;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(String recipeId) {
+        int[] signature = signatures.remove(recipeId);
+        if (signature == null)
+            return;
+        for (int b = 0; b < bands; b++) {
+            Map<Integer, Set<String>> band = buckets.get(b);
+            int key = bandKey(signature, b);
+            Set<String> bucket = band.get(key);
+            if (bucket != null) {
+                bucket.remove(recipeId);
+                if (bucket.isEmpty()) {
+                    band.remove(key);
+                }
+            }
+        }
+    }
+
+    private int bandKey(int[] signature, int band) {
+        int from = band * rows;
+        return Arrays.hashCode(Arrays.copyOfRange(signature, from, from + rows));
+    }
+
+    private static double estimate(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    // Spreads String.hashCode bits (murmur3 finalizer) before the linear hashes
+    /**
+     * (a * x + b) mod 2^61 - 1 without overflow: the 122-bit product is
+     * folded using 2^61 = 1 (mod p). Expects a, b < p and x < 2^61.
+     */
+    static long hash(long a, long x, long b) {
+        long high = Math.multiplyHigh(a, x);
+        long low = a * x;
+        long sum = (high << 3) + (low >>> 61) + (low & PRIME) + b;
+        long reduced = (sum & PRIME) + (sum >>> 61);
+        return reduced >= PRIME ? reduced - PRIME : reduced;
+    }
+
+    private static long mix(int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & 0xffffffffL;
+    }
+}
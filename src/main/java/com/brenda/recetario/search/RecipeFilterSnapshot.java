@@ -0,0 +1,178 @@
+package com.brenda.recetario.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.brenda.recetario.enums.RecipeCategory;
+
+/**
+ * Category/fit columns of every recipe in parallel primitive arrays, sorted by
+ * id (creation order). A filter-only search or its counts is a single linear
+ * pass over two arrays instead of a collection scan in Mongo.
+ */
+public class RecipeFilterSnapshot {
+    // Category mask that matches every recipe, even those without categories
+    public static final int ANY_CATEGORY = -1;
+
+    private static final byte FIT_UNKNOWN = -1;
+    private static final byte FIT_FALSE = 0;
+    private static final byte FIT_TRUE = 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private String[] ids = new String[64];
+    private int[] categoryMasks = new int[64];
+    private byte[] fits = new byte[64];
+    private int size;
+
+    public record Slice(List<String> ids, long total) {
+    }
+
+    public record Counts(long total, long[] categories, long fit, long nonFit) {
+    }
+
+    public static int mask(Collection<RecipeCategory> categories) {
+        int mask = 0;
+        if (categories != null) {
+            for (RecipeCategory category : categories) {
+                if (category != null) {
+                    mask |= 1 << category.ordinal();
+                }
+            }
+        }
+        return mask;
+    }
+
+    public void add(String recipeId, Collection<RecipeCategory> categories, Boolean fit) {
+        lock.writeLock().lock();
+        try {
+            int i = Arrays.binarySearch(ids, 0, size, recipeId);
+            if (i < 0) {
+                i = -i - 1;
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    categoryMasks = Arrays.copyOf(categoryMasks, size * 2);
+                    fits = Arrays.copyOf(fits, size * 2);
+                }
+                System.arraycopy(ids, i, ids, i + 1, size - i);
+                System.arraycopy(categoryMasks, i, categoryMasks, i + 1, size - i);
+                System.arraycopy(fits, i, fits, i + 1, size - i);
+                size++;
+            }
+            ids[i] = recipeId;
+            categoryMasks[i] = mask(categories);
+            fits[i] = fit == null ? FIT_UNKNOWN : fit ? FIT_TRUE : FIT_FALSE;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String recipeId) {
+        lock.writeLock().lock();
+        try {
+            int i = Arrays.binarySearch(ids, 0, size, recipeId);
+            if (i < 0)
+                return;
+            System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+            System.arraycopy(categoryMasks, i + 1, categoryMasks, i, size - i - 1);
+            System.arraycopy(fits, i + 1, fits, i, size - i - 1);
+            ids[--size] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ids = new String[64];
+            categoryMasks = new int[64];
+            fits = new byte[64];
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids from {@code offset} to {@code offset + limit} of the recipes sharing
+     * a category with {@code categoryMask} and with the given fit (null for
+     * any), plus the number of matches.
+     */
+    public Slice filter(int categoryMask, Boolean fit, long offset, int limit) {
+        byte wanted = fit == null ? FIT_UNKNOWN : fit ? FIT_TRUE : FIT_FALSE;
+
+        lock.readLock().lock();
+        try {
+            List<String> page = new ArrayList<>(Math.max(0, limit));
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                if (categoryMask != ANY_CATEGORY && (categoryMasks[i] & categoryMask) == 0)
+                    continue;
+                if (fit != null && fits[i] != wanted)
+                    continue;
+                if (total >= offset && page.size() < limit) {
+                    page.add(ids[i]);
+                }
+                total++;
+            }
+            return new Slice(page, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts in one pass: the total with both filters, the categories
+     * ignoring the category filter and the fit values ignoring the fit filter.
+     */
+    public Counts count(int categoryMask, Boolean fit) {
+        byte wanted = fit == null ? FIT_UNKNOWN : fit ? FIT_TRUE : FIT_FALSE;
+        int categoryCount = RecipeCategory.values().length;
+
+        lock.readLock().lock();
+        try {
+            long[] categories = new long[categoryCount];
+            long total = 0;
+            long fitCount = 0;
+            long nonFitCount = 0;
+            for (int i = 0; i < size; i++) {
+                int mask = categoryMasks[i];
+                boolean categoryMatch = categoryMask == ANY_CATEGORY || (mask & categoryMask) != 0;
+                boolean fitMatch = fit == null || fits[i] == wanted;
+
+                if (fitMatch) {
+                    for (int c = 0; c < categoryCount; c++) {
+                        categories[c] += (mask >>> c) & 1;
+                    }
+                }
+                if (categoryMatch) {
+                    if (fits[i] == FIT_TRUE) {
+                        fitCount++;
+                    } else {
+                        nonFitCount++;
+                    }
+                    if (fitMatch) {
+                        total++;
+                    }
+                }
+            }
+            return new Counts(total, categories, fitCount, nonFitCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.brenda.recetario.search;
+
+import com.brenda.recetario.entity.Recipe;
+
+/**
+ * In-memory structure kept in sync by {@link RecipeIndexManager}. Recipes
+ * passed in only carry the fields listed in {@link RecipeIndexManager#INDEX_FIELDS}.
+ */
+public interface RecipeIndex {
+
+    void add(Recipe recipe);
+
+    // Receives the same state previously passed to add()
+    void remove(Recipe recipe);
+
+    void clear();
+
+    // Called after a full rebuild has gone through add()
+    default void loaded() {
+    }
+}
@@ -0,0 +1,296 @@
+package com.brenda.recetario.search;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.events.RecipeCacheFlushEvent;
+import com.brenda.recetario.events.RecipeChangedEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads every recipe once at startup and feeds all {@link RecipeIndex} beans,
+ * then keeps them current from {@link RecipeChangedEvent}s. The load finishes
+ * before the application reports ready on its readiness probe; requests that
+ * arrive earlier are served by the fallbacks that do not use the indexes.
+ *
+ * When {@code recipes.index.snapshot.path} is set, the indexed fields are
+ * also written there periodically, and a restart loads that file and only
+ * replays what changed after it instead of reading the whole collection.
+ */
+@Slf4j
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class RecipeIndexManager implements ApplicationRunner {
+    public static final String[] INDEX_FIELDS = {
+            "id", "categories", "fit", "normalizedTitle", "normalizedIngredients", "version" };
+
+    // Margin for clocks of other instances that stamped lastModified
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final List<RecipeIndex> indexes;
+
+    @Value("${recipes.index.snapshot.path:}")
+    private String snapshotPath = "";
+
+    // Last state handed to the indexes, needed to remove it later
+    private final Map<String, Recipe> indexed = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    // Ids changed by events while resync() reads the collection; their event state wins
+    private Set<String> changedDuringResync;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            if (!warmStart()) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("RecipeIndexManager: No se pudieron cargar los índices de búsqueda", e);
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        reset();
+
+        Query query = new Query();
+        query.fields().include(INDEX_FIELDS);
+        try (Stream<Recipe> recipes = mongoTemplate.stream(query, Recipe.class)) {
+            recipes.forEach(this::add);
+        }
+        indexes.forEach(RecipeIndex::loaded);
+
+        ready = true;
+        log.info("RecipeIndexManager: {} recetas indexadas en {} ms", indexed.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Feeds the indexes from the snapshot file and catches up with the
+     * database. Returns false when there is no usable snapshot.
+     */
+    public synchronized boolean warmStart() {
+        Path path = snapshotFile();
+        if (path == null || !Files.exists(path))
+            return false;
+
+        long start = System.nanoTime();
+        RecipeSnapshotFile.Snapshot snapshot;
+        try {
+            snapshot = RecipeSnapshotFile.read(path);
+        } catch (IOException e) {
+            log.warn("RecipeIndexManager: Snapshot {} descartado, se reconstruye desde la base: {}", path,
+                    e.getMessage());
+            return false;
+        }
+
+        reset();
+        snapshot.recipes().forEach(this::add);
+        int replayed = catchUp(snapshot.takenAt());
+        indexes.forEach(RecipeIndex::loaded);
+
+        ready = true;
+        log.info("RecipeIndexManager: {} recetas cargadas del snapshot del {} ({} cambios aplicados) en {} ms",
+                indexed.size(), snapshot.takenAt(), replayed, (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${recipes.index.snapshot.interval:PT10M}",
+            initialDelayString = "${recipes.index.snapshot.interval:PT10M}")
+    public void writeSnapshot() {
+        Path path = snapshotFile();
+        if (path == null || !ready)
+            return;
+
+        Instant takenAt;
+        List<Recipe> recipes;
+        synchronized (this) {
+            takenAt = Instant.now();
+            recipes = new ArrayList<>(indexed.values());
+        }
+        try {
+            RecipeSnapshotFile.write(path, takenAt, recipes);
+            log.info("RecipeIndexManager: Snapshot de {} recetas guardado en {}", recipes.size(), path);
+        } catch (IOException e) {
+            log.error("RecipeIndexManager: No se pudo guardar el snapshot en {}", path, e);
+        }
+    }
+
+    @EventListener
+    public synchronized void onRecipeChanged(RecipeChangedEvent event) {
+        // Concurrent updates can publish their events out of order: keep the newest state
+        if (!event.isDeleted() && isOlder(event.getRecipe(), indexed.get(event.getRecipeId()))) {
+            log.debug("RecipeIndexManager: Se descarta la versión {} de {}, ya se indexó una posterior",
+                    event.getRecipe().getVersion(), event.getRecipeId());
+            return;
+        }
+        if (changedDuringResync != null) {
+            changedDuringResync.add(event.getRecipeId());
+        }
+        removeIndexed(event.getRecipeId());
+        if (!event.isDeleted()) {
+            add(event.getRecipe());
+        }
+    }
+
+    // Changes from other instances were lost, so the indexes are compared against the database
+    @EventListener
+    public void onCacheFlush(RecipeCacheFlushEvent event) {
+        resync();
+    }
+
+    /**
+     * Brings the indexes in line with the database without emptying them.
+     * The collection is read without holding the lock, and only the recipes
+     * that differ are patched afterwards, so lookups and change events keep
+     * being served while it runs.
+     */
+    public void resync() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            changedDuringResync = new HashSet<>();
+        }
+        Map<String, Recipe> current = new HashMap<>();
+        int changes = 0;
+        try {
+            Query query = new Query();
+            query.fields().include(INDEX_FIELDS);
+            try (Stream<Recipe> recipes = mongoTemplate.stream(query, Recipe.class)) {
+                recipes.forEach(recipe -> current.put(recipe.getId(), indexView(recipe)));
+            }
+
+            synchronized (this) {
+                for (String id : new ArrayList<>(indexed.keySet())) {
+                    if (!current.containsKey(id) && !changedDuringResync.contains(id)) {
+                        removeIndexed(id);
+                        changes++;
+                    }
+                }
+                for (Recipe view : current.values()) {
+                    if (!changedDuringResync.contains(view.getId()) && !view.equals(indexed.get(view.getId()))) {
+                        removeIndexed(view.getId());
+                        add(view);
+                        changes++;
+                    }
+                }
+            }
+        } finally {
+            synchronized (this) {
+                changedDuringResync = null;
+            }
+        }
+        log.info("RecipeIndexManager: Índices sincronizados con la base ({} cambios) en {} ms", changes,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return indexed.size();
+    }
+
+    // Drops deleted recipes and reloads the ones changed (or missing) since the snapshot
+    private int catchUp(Instant since) {
+        Query idsQuery = new Query();
+        idsQuery.fields().include("id");
+        Set<String> existing = new HashSet<>();
+        try (Stream<Recipe> recipes = mongoTemplate.stream(idsQuery, Recipe.class)) {
+            recipes.forEach(recipe -> existing.add(recipe.getId()));
+        }
+
+        int changes = 0;
+        for (String id : new ArrayList<>(indexed.keySet())) {
+            if (!existing.contains(id)) {
+                removeIndexed(id);
+                changes++;
+            }
+        }
+
+        existing.removeAll(indexed.keySet());
+        Criteria modified = Criteria.where("lastModified").gte(since.minus(CLOCK_SKEW));
+        Query query = new Query(existing.isEmpty()
+                ? modified
+                : new Criteria().orOperator(modified, Criteria.where("id").in(existing)));
+        query.fields().include(INDEX_FIELDS);
+        try (Stream<Recipe> recipes = mongoTemplate.stream(query, Recipe.class)) {
+            for (Recipe recipe : (Iterable<Recipe>) recipes::iterator) {
+                removeIndexed(recipe.getId());
+                add(recipe);
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    private void reset() {
+        ready = false;
+        indexed.clear();
+        indexes.forEach(RecipeIndex::clear);
+    }
+
+    private Path snapshotFile() {
+        return snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    // Unknown versions (e.g. loaded from a snapshot) never count as newer
+    private static boolean isOlder(Recipe recipe, Recipe indexedState) {
+        return indexedState != null && indexedState.getVersion() != null && recipe.getVersion() != null
+                && recipe.getVersion() < indexedState.getVersion();
+    }
+
+    private void removeIndexed(String recipeId) {
+        Recipe previous = indexed.remove(recipeId);
+        if (previous != null) {
+            indexes.forEach(index -> index.remove(previous));
+        }
+    }
+
+    private void add(Recipe recipe) {
+        Recipe view = indexView(recipe);
+        indexed.put(view.getId(), view);
+        indexes.forEach(index -> index.add(view));
+    }
+
+    // Keeps only the indexed fields so instructions and the rest are not retained
+    private Recipe indexView(Recipe recipe) {
+        Recipe view = new Recipe();
+        view.setId(recipe.getId());
+        view.setCategories(recipe.getCategories() != null ? List.copyOf(recipe.getCategories()) : List.of());
+        view.setFit(recipe.getFit());
+        view.setVersion(recipe.getVersion());
+        view.setNormalizedTitle(recipe.getNormalizedTitle());
+        view.setNormalizedIngredients(recipe.getNormalizedIngredients() != null
+                ? List.copyOf(recipe.getNormalizedIngredients())
+                : List.of());
+        return view;
+    }
+}
@@ -0,0 +1,146 @@
+package com.brenda.recetario.search;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.enums.RecipeCategory;
+
+/**
+ * Versioned binary file with the indexed fields of every recipe, so a restart
+ * can feed the indexes from local disk instead of reading the whole
+ * collection. Layout: magic, version, timestamp (epoch millis), count, then
+ * per recipe id, category bitmask, fit byte, normalized title and ingredients.
+ */
+public final class RecipeSnapshotFile {
+    static final int MAGIC = 0x52435053; // "RCPS"
+    static final int VERSION = 1;
+
+    private static final byte FIT_UNKNOWN = -1;
+
+    private RecipeSnapshotFile() {
+    }
+
+    public record Snapshot(Instant takenAt, List<Recipe> recipes) {
+    }
+
+    /**
+     * Writes to a temporary file next to {@code path} and moves it into place,
+     * so readers never see a half written snapshot.
+     */
+    public static void write(Path path, Instant takenAt, Collection<Recipe> recipes) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(takenAt.toEpochMilli());
+            out.writeInt(recipes.size());
+            for (Recipe recipe : recipes) {
+                writeString(out, recipe.getId());
+                out.writeInt(RecipeFilterSnapshot.mask(recipe.getCategories()));
+                out.writeByte(recipe.getFit() == null ? FIT_UNKNOWN : recipe.getFit() ? 1 : 0);
+                writeString(out, recipe.getNormalizedTitle());
+                List<String> ingredients = recipe.getNormalizedIngredients() != null
+                        ? recipe.getNormalizedIngredients()
+                        : List.of();
+                out.writeInt(ingredients.size());
+                for (String ingredient : ingredients) {
+                    writeString(out, ingredient);
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the file read-only and decodes it. Throws {@link IOException} when
+     * the file is missing, truncated or written by another version.
+     */
+    public static Snapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 20 || buffer.getInt() != MAGIC)
+                throw new IOException("No es un snapshot de recetas: " + path);
+            int version = buffer.getInt();
+            if (version != VERSION)
+                throw new IOException("Versión de snapshot no soportada: " + version);
+
+            Instant takenAt = Instant.ofEpochMilli(buffer.getLong());
+            int count = buffer.getInt();
+            List<Recipe> recipes = new ArrayList<>(Math.min(count, buffer.remaining()));
+            RecipeCategory[] categories = RecipeCategory.values();
+
+            for (int i = 0; i < count; i++) {
+                Recipe recipe = new Recipe();
+                recipe.setId(readString(buffer));
+
+                int mask = buffer.getInt();
+                List<RecipeCategory> recipeCategories = new ArrayList<>(Integer.bitCount(mask));
+                for (int c = 0; c < categories.length; c++) {
+                    if ((mask & (1 << c)) != 0) {
+                        recipeCategories.add(categories[c]);
+                    }
+                }
+                recipe.setCategories(recipeCategories);
+
+                byte fit = buffer.get();
+                recipe.setFit(fit == FIT_UNKNOWN ? null : fit == 1);
+                recipe.setNormalizedTitle(readString(buffer));
+
+                int ingredientCount = buffer.getInt();
+                List<String> ingredients = new ArrayList<>(Math.min(ingredientCount, buffer.remaining()));
+                for (int j = 0; j < ingredientCount; j++) {
+                    ingredients.add(readString(buffer));
+                }
+                recipe.setNormalizedIngredients(ingredients);
+                recipes.add(recipe);
+            }
+            return new Snapshot(takenAt, recipes);
+        } catch (RuntimeException e) {
+            // BufferUnderflowException and friends mean a truncated or corrupt file
+            throw new IOException("Snapshot de recetas inválido: " + path, e);
+        }
+    }
+
+    // Length prefixed UTF-8, -1 for null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0)
+            return null;
+        if (length > buffer.remaining())
+            throw new BufferUnderflowException();
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,197 @@
+package com.brenda.recetario.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Symmetric delete spelling index (SymSpell). Every vocabulary term is stored
+ * under all the strings obtained by deleting up to {@code maxDistance}
+ * characters, so a lookup only generates the deletes of the input and checks
+ * the few terms that share one, instead of comparing against the whole
+ * vocabulary.
+ */
+public class SymSpellIndex {
+    // Deletes grow with length^distance: longer terms are neither indexed nor corrected
+    public static final int MAX_TERM_LENGTH = 20;
+
+    private final int maxDistance;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Term -> number of times it was added (recipes using it)
+    private final Map<String, Integer> vocabulary = new HashMap<>();
+    // Delete variant -> terms that produce it
+    private final Map<String, List<String>> deletes = new HashMap<>();
+
+    public record Correction(String term, int distance, int count) {
+    }
+
+    public SymSpellIndex(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    public void add(String term) {
+        if (term.length() > MAX_TERM_LENGTH)
+            return;
+        lock.writeLock().lock();
+        try {
+            if (vocabulary.merge(term, 1, Integer::sum) > 1)
+                return;
+            for (String variant : deletesOf(term, maxDistance)) {
+                deletes.computeIfAbsent(variant, v -> new ArrayList<>(2)).add(term);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String term) {
+        if (term.length() > MAX_TERM_LENGTH)
+            return;
+        lock.writeLock().lock();
+        try {
+            Integer count = vocabulary.get(term);
+            if (count == null)
+                return;
+            if (count > 1) {
+                vocabulary.put(term, count - 1);
+                return;
+            }
+            vocabulary.remove(term);
+            for (String variant : deletesOf(term, maxDistance)) {
+                List<String> terms = deletes.get(variant);
+                if (terms != null) {
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        deletes.remove(variant);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            vocabulary.clear();
+            deletes.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return vocabulary.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vocabulary terms within {@code distance} edits of {@code word} (optimal
+     * string alignment, so a swap of two letters counts as one edit), closest
+     * and most used first. Words too long to be near any indexed term get no
+     * corrections.
+     */
+    public List<Correction> lookup(String word, int distance, int limit) {
+        int max = Math.min(distance, maxDistance);
+        if (word.length() > MAX_TERM_LENGTH + max)
+            return List.of();
+
+        lock.readLock().lock();
+        try {
+            Set<String> candidates = new HashSet<>();
+            if (vocabulary.containsKey(word)) {
+                candidates.add(word);
+            }
+            List<String> longer = deletes.get(word);
+            if (longer != null) {
+                candidates.addAll(longer);
+            }
+            for (String variant : deletesOf(word, max)) {
+                if (vocabulary.containsKey(variant)) {
+                    candidates.add(variant);
+                }
+                List<String> terms = deletes.get(variant);
+                if (terms != null) {
+                    candidates.addAll(terms);
+                }
+            }
+
+            List<Correction> corrections = new ArrayList<>();
+            for (String candidate : candidates) {
+                if (Math.abs(candidate.length() - word.length()) > max)
+                    continue;
+                int d = editDistance(word, candidate, max);
+                if (d <= max) {
+                    corrections.add(new Correction(candidate, d, vocabulary.get(candidate)));
+                }
+            }
+            corrections.sort(Comparator.comparingInt(Correction::distance)
+                    .thenComparing(Comparator.comparingInt(Correction::count).reversed())
+                    .thenComparing(Correction::term));
+            return corrections.size() > limit ? corrections.subList(0, limit) : corrections;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // All strings obtained by removing 1..distance characters (the word itself excluded)
+    static Set<String> deletesOf(String word, int distance) {
+        Set<String> result = new HashSet<>();
+        List<String> frontier = List.of(word);
+        for (int d = 0; d < distance; d++) {
+            List<String> next = new ArrayList<>();
+            for (String current : frontier) {
+                if (current.length() <= 1)
+                    continue;
+                for (int i = 0; i < current.length(); i++) {
+                    String variant = current.substring(0, i) + current.substring(i + 1);
+                    if (result.add(variant)) {
+                        next.add(variant);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return result;
+    }
+
+    // Optimal string alignment distance, gives up once it exceeds max
+    static int editDistance(String a, String b, int max) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++)
+            d[i][0] = i;
+        for (int j = 0; j <= b.length(); j++)
+            d[0][j] = j;
+
+        int previousRowMin = 0;
+        for (int i = 1; i <= a.length(); i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, d[i - 2][j - 2] + 1);
+                }
+                d[i][j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            // A transposition can reach back two rows, so both must be over the limit
+            if (rowMin > max && previousRowMin > max)
+                return max + 1;
+            previousRowMin = rowMin;
+        }
+        return d[a.length()][b.length()];
+    }
+}
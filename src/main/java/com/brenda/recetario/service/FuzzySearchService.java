@@ -0,0 +1,82 @@
+package com.brenda.recetario.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.search.RecipeIndex;
+import com.brenda.recetario.search.SymSpellIndex;
+
+/**
+ * Typo tolerance for the keyword search. The vocabulary is every word of the
+ * normalized titles and ingredients; a misspelled keyword ("tomte") is
+ * expanded to the closest vocabulary words ("tomate") before querying.
+ */
+@Service
+public class FuzzySearchService implements RecipeIndex {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    static final int MIN_WORD_LENGTH = 3;
+
+    private final SymSpellIndex index = new SymSpellIndex(2);
+    private final int maxExpansions;
+
+    public FuzzySearchService(@Value("${recipes.search.fuzzy.max-expansions:5}") int maxExpansions) {
+        this.maxExpansions = maxExpansions;
+    }
+
+    /**
+     * The keyword itself plus the vocabulary words within 1 edit (keywords of
+     * up to 4 letters) or 2 edits (longer ones). Keywords longer than
+     * {@link SymSpellIndex#MAX_TERM_LENGTH} are not expanded.
+     */
+    public Set<String> expand(String keyword) {
+        Set<String> terms = new LinkedHashSet<>();
+        terms.add(keyword);
+        if (keyword.length() < MIN_WORD_LENGTH || keyword.length() > SymSpellIndex.MAX_TERM_LENGTH)
+            return terms;
+
+        int distance = keyword.length() <= 4 ? 1 : 2;
+        index.lookup(keyword, distance, maxExpansions)
+                .forEach(correction -> terms.add(correction.term()));
+        return terms;
+    }
+
+    @Override
+    public void add(Recipe recipe) {
+        words(recipe).forEach(index::add);
+    }
+
+    @Override
+    public void remove(Recipe recipe) {
+        words(recipe).forEach(index::remove);
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+    }
+
+    // Distinct words of the title and ingredients, so counts are per recipe
+    private Set<String> words(Recipe recipe) {
+        List<String> sources = new ArrayList<>(recipe.getNormalizedIngredients());
+        if (recipe.getNormalizedTitle() != null) {
+            sources.add(recipe.getNormalizedTitle());
+        }
+
+        Set<String> words = new LinkedHashSet<>();
+        for (String source : sources) {
+            for (String word : WORD_SEPARATOR.split(source)) {
+                if (word.length() >= MIN_WORD_LENGTH) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+}
@@ -1,14 +1,34 @@
 package com.brenda.recetario.service;
 
 import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.brenda.recetario.entity.ImageAsset;
 import com.brenda.recetario.exceptions.ImageDeletionException;
 import com.brenda.recetario.exceptions.ImageUploadException;
+import com.brenda.recetario.models.ImageReferenceDTO;
+import com.brenda.recetario.models.ImageUploadSignatureDTO;
 import com.cloudinary.Cloudinary;
+import com.cloudinary.Url;
 import com.cloudinary.utils.ObjectUtils;
 
 import lombok.AllArgsConstructor;
@@ -18,21 +38,206 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @AllArgsConstructor
 public class ImageService {
+    // Public ids issued for direct uploads, no folder so extractPublicIdFromUrl still works
+    static final String UPLOAD_PREFIX = "recetario_";
+    private static final long SIGNATURE_TTL_SECONDS = 3600;
+    // Cloudinary admin API limit of public ids per delete_resources call
+    static final int DESTROY_BATCH_SIZE = 100;
+
     private final Cloudinary cloudinary;
+    private final MongoTemplate mongoTemplate;
 
+    /**
+     * Uploads the image unless the same content was uploaded before, in which
+     * case the existing asset gets one more reference and its URL is returned
+     * without calling Cloudinary.
+     */
     public String uploadImage(MultipartFile image) {
+        byte[] content = readContent(image);
+        String hash = contentHash(content);
+        Query byHash = new Query(Criteria.where("_id").is(hash));
+
+        ImageAsset existing = mongoTemplate.findAndModify(byHash, new Update().inc("references", 1),
+                FindAndModifyOptions.options().returnNew(true), ImageAsset.class);
+        if (existing != null) {
+            log.info("Servicio imagen: Imagen repetida, se reutiliza {} ({} referencias)", existing.getUrl(),
+                    existing.getReferences());
+            return existing.getUrl();
+        }
+
+        String url;
         try {
-            Map<?, ?> res = cloudinary.uploader().upload(image.getBytes(), ObjectUtils.emptyMap());
-            String url = (String) res.get("secure_url");
+            Map<?, ?> res = cloudinary.uploader().upload(content, ObjectUtils.emptyMap());
+            url = (String) res.get("secure_url");
             log.info("Servicio imagen: Imagen subida correctamente a Cloudinary: {}", url);
-            return url;
         } catch (IOException e) {
             log.error("Servicio imagen: Error subiendo imagen a Cloudinary", e);
             throw new ImageUploadException("No se pudo subir la imagen a Cloudinary", e);
         }
+
+        ImageAsset asset = mongoTemplate.findAndModify(byHash,
+                new Update().inc("references", 1).setOnInsert("url", url),
+                FindAndModifyOptions.options().upsert(true).returnNew(true), ImageAsset.class);
+        if (asset != null && asset.getUrl() != null && !asset.getUrl().equals(url)) {
+            // A concurrent upload of the same content registered first, keep that one
+            destroy(url);
+            return asset.getUrl();
+        }
+        return url;
+    }
+
+    /**
+     * Signed parameters for a browser upload straight to Cloudinary. The
+     * public id is chosen here, so the client can only create that asset, and
+     * Cloudinary rejects the signature once the timestamp is an hour old.
+     */
+    public ImageUploadSignatureDTO createUploadSignature() {
+        long timestamp = Instant.now().getEpochSecond();
+        Map<String, Object> params = new TreeMap<>();
+        params.put("timestamp", timestamp);
+        params.put("public_id", UPLOAD_PREFIX + UUID.randomUUID().toString().replace("-", ""));
+
+        String signature = cloudinary.apiSignRequest(params, cloudinary.config.apiSecret);
+        params.put("signature", signature);
+        params.put("api_key", cloudinary.config.apiKey);
+
+        String uploadUrl = "https://api.cloudinary.com/v1_1/" + cloudinary.config.cloudName + "/image/upload";
+        log.info("Servicio imagen: Firma de subida directa emitida para {}", params.get("public_id"));
+        return new ImageUploadSignatureDTO(uploadUrl, params, timestamp + SIGNATURE_TTL_SECONDS);
     }
 
+    /**
+     * Checks the signature Cloudinary returned for a direct upload and gives
+     * back the delivery URL of that asset. Direct uploads are reference
+     * counted like server uploads, keyed by Cloudinary's etag (MD5 of the
+     * content) so a repeated image reuses the first asset, or by public id
+     * when the etag cannot be read.
+     */
+    public String resolveUploadedImage(ImageReferenceDTO reference) {
+        if (!reference.getPublicId().startsWith(UPLOAD_PREFIX)
+                || !cloudinary.verifyApiResponseSignature(reference.getPublicId(), reference.getVersion(),
+                        reference.getSignature())) {
+            log.warn("Servicio imagen: Referencia de imagen con firma inválida: {}", reference.getPublicId());
+            throw new ImageUploadException("La referencia de la imagen no es válida");
+        }
+
+        Url url = cloudinary.url().secure(true).version(reference.getVersion());
+        if (reference.getFormat() != null && !reference.getFormat().isBlank()) {
+            url.format(reference.getFormat());
+        }
+        String generated = url.generate(reference.getPublicId());
+
+        String etag = fetchEtag(reference.getPublicId());
+        String key = etag != null ? "etag:" + etag : "public_id:" + reference.getPublicId();
+        ImageAsset asset = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(key)),
+                new Update().inc("references", 1).setOnInsert("url", generated),
+                FindAndModifyOptions.options().upsert(true).returnNew(true), ImageAsset.class);
+        if (asset == null || asset.getUrl() == null)
+            return generated;
+        if (!reference.getPublicId().equals(extractPublicIdFromUrl(asset.getUrl()))) {
+            // Same content uploaded before under another public id, keep that one
+            log.info("Servicio imagen: Subida directa repetida, se reutiliza {}", asset.getUrl());
+            destroy(generated);
+        }
+        // Always the registered URL, so deleteImage finds the asset again
+        return asset.getUrl();
+    }
+
+    // Destroys the Cloudinary asset only when no recipe uses it anymore
     public void deleteImage(String url) {
+        if (release(url, 1)) {
+            destroy(url);
+        }
+    }
+
+    /**
+     * Same as {@link #deleteImage} for many URLs (repeated ones count once per
+     * occurrence), destroying the unused assets in batches of
+     * {@value #DESTROY_BATCH_SIZE} per Cloudinary call. Tells for each URL
+     * whether it was released without errors.
+     */
+    public Map<String, Boolean> deleteImages(Collection<String> urls) {
+        Map<String, Long> occurrences = urls.stream()
+                .collect(Collectors.groupingBy(url -> url, LinkedHashMap::new, Collectors.counting()));
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        Map<String, String> unused = new LinkedHashMap<>(); // publicId -> url
+
+        occurrences.forEach((url, count) -> {
+            if (!release(url, count)) {
+                results.put(url, true);
+                return;
+            }
+            String publicId = extractPublicIdFromUrl(url);
+            if (publicId == null || publicId.isEmpty()) {
+                log.warn("Servicio imagen: No se pudo extraer publicId de la URL: {}", url);
+                results.put(url, false);
+            } else {
+                unused.put(publicId, url);
+            }
+        });
+
+        List<String> publicIds = new ArrayList<>(unused.keySet());
+        for (int from = 0; from < publicIds.size(); from += DESTROY_BATCH_SIZE) {
+            List<String> batch = publicIds.subList(from, Math.min(from + DESTROY_BATCH_SIZE, publicIds.size()));
+            Map<?, ?> deleted = Map.of();
+            try {
+                Map<?, ?> response = cloudinary.api().deleteResources(batch, ObjectUtils.emptyMap());
+                if (response.get("deleted") instanceof Map<?, ?> map) {
+                    deleted = map;
+                }
+                log.info("Servicio imagen: {} imágenes eliminadas de Cloudinary en una llamada", batch.size());
+            } catch (Exception e) {
+                log.error("Servicio imagen: Error eliminando un lote de {} imágenes de Cloudinary", batch.size(), e);
+            }
+            for (String publicId : batch) {
+                // "not_found" means it is already gone, which is what was asked
+                Object status = deleted.get(publicId);
+                results.put(unused.get(publicId), "deleted".equals(status) || "not_found".equals(status));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Drops {@code count} references to the image. True when no recipe uses
+     * it anymore and the asset should be destroyed; images without a
+     * registered asset (stored before deduplication) always are. The count
+     * never goes below zero: the asset is removed atomically by whoever
+     * releases its last references, and only decremented while more remain.
+     */
+    private boolean release(String url, long count) {
+        while (true) {
+            ImageAsset last = mongoTemplate.findAndRemove(
+                    new Query(Criteria.where("url").is(url).and("references").lte(count)), ImageAsset.class);
+            if (last != null)
+                return true;
+
+            ImageAsset shared = mongoTemplate.findAndModify(
+                    new Query(Criteria.where("url").is(url).and("references").gt(count)),
+                    new Update().inc("references", -count), FindAndModifyOptions.options().returnNew(true),
+                    ImageAsset.class);
+            if (shared != null) {
+                log.info("Servicio imagen: Imagen compartida, quedan {} referencias: {}", shared.getReferences(),
+                        url);
+                return false;
+            }
+            // Neither matched: no asset at all, or its count moved in between and it is tried again
+            if (!mongoTemplate.exists(new Query(Criteria.where("url").is(url)), ImageAsset.class))
+                return true;
+        }
+    }
+
+    private String fetchEtag(String publicId) {
+        try {
+            Object etag = cloudinary.api().resource(publicId, ObjectUtils.emptyMap()).get("etag");
+            return etag instanceof String value && !value.isBlank() ? value : null;
+        } catch (Exception e) {
+            log.warn("Servicio imagen: No se pudo leer el etag de {}: {}", publicId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void destroy(String url) {
         try {
             String publicId = extractPublicIdFromUrl(url);
             if (publicId != null && !publicId.isEmpty()) {
@@ -47,6 +252,24 @@ public class ImageService {
         }
     }
 
+    // Read once: the same bytes are hashed and, if new, uploaded
+    private byte[] readContent(MultipartFile image) {
+        try {
+            return image.getBytes();
+        } catch (IOException e) {
+            log.error("Servicio imagen: Error leyendo la imagen", e);
+            throw new ImageUploadException("No se pudo subir la imagen a Cloudinary", e);
+        }
+    }
+
+    private String contentHash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
     private String extractPublicIdFromUrl(String url) {
         try {
             // Get the final part from the URL (eg. "miperro_k7b9lm.jpg")
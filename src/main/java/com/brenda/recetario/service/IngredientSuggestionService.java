@@ -0,0 +1,47 @@
+package com.brenda.recetario.service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.models.IngredientSuggestionDTO;
+import com.brenda.recetario.search.IngredientTrie;
+import com.brenda.recetario.search.RecipeIndex;
+import com.brenda.recetario.utils.TextNormalizer;
+
+/**
+ * Ingredient autocomplete answered from memory. Popularity is the number of
+ * recipes that use each normalized ingredient.
+ */
+@Service
+public class IngredientSuggestionService implements RecipeIndex {
+    static final int MAX_LIMIT = 50;
+
+    private final IngredientTrie trie = new IngredientTrie();
+
+    public List<IngredientSuggestionDTO> suggest(String prefix, int limit) {
+        String normalized = TextNormalizer.normalize(prefix);
+        if (normalized.isEmpty())
+            return List.of();
+
+        return trie.suggest(normalized, Math.min(Math.max(limit, 1), MAX_LIMIT)).stream()
+                .map(s -> new IngredientSuggestionDTO(s.term(), s.count()))
+                .toList();
+    }
+
+    @Override
+    public void add(Recipe recipe) {
+        recipe.getNormalizedIngredients().stream().distinct().forEach(trie::add);
+    }
+
+    @Override
+    public void remove(Recipe recipe) {
+        recipe.getNormalizedIngredients().stream().distinct().forEach(trie::remove);
+    }
+
+    @Override
+    public void clear() {
+        trie.clear();
+    }
+}
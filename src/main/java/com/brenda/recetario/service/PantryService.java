@@ -0,0 +1,86 @@
+package com.brenda.recetario.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.exceptions.InvalidDataException;
+import com.brenda.recetario.models.PantryMatchDTO;
+import com.brenda.recetario.models.RecipeFilteredResponseDTO;
+import com.brenda.recetario.search.IngredientBitsetIndex;
+import com.brenda.recetario.search.RecipeIndex;
+import com.brenda.recetario.utils.TextNormalizer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * "What can I cook": recipes whose ingredients are covered by the pantry,
+ * allowing up to {@code maxMissing} ingredients that are not in it. The match
+ * runs in memory, Mongo is only asked for the summaries of the page.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PantryService implements RecipeIndex {
+    static final int MAX_MISSING = 10;
+
+    private final RecipeSummaryService recipeSummaryService;
+    private final IngredientBitsetIndex index = new IngredientBitsetIndex();
+
+    public Page<PantryMatchDTO> searchByPantry(List<String> ingredients, int maxMissing, int page, int size) {
+        List<String> pantryTerms = TextNormalizer.normalizeAll(ingredients);
+        if (pantryTerms.isEmpty()) {
+            throw new InvalidDataException("Debe indicar al menos un ingrediente");
+        }
+        if (maxMissing < 0 || maxMissing > MAX_MISSING) {
+            throw new InvalidDataException("maxMissing debe estar entre 0 y " + MAX_MISSING);
+        }
+
+        long[] pantry = index.pantry(pantryTerms);
+        List<IngredientBitsetIndex.Match> matches = index.query(pantry, maxMissing);
+
+        Pageable pageable = PageRequest.of(page, size);
+        List<IngredientBitsetIndex.Match> pageMatches = matches.stream()
+                .skip(pageable.getOffset())
+                .limit(size)
+                .toList();
+
+        Map<String, Recipe> recipes = recipeSummaryService.findSummaries(pageMatches.stream()
+                .map(IngredientBitsetIndex.Match::recipeId)
+                .toList());
+
+        List<PantryMatchDTO> content = pageMatches.stream()
+                .filter(match -> recipes.containsKey(match.recipeId()))
+                .map(match -> new PantryMatchDTO(
+                        new RecipeFilteredResponseDTO(recipes.get(match.recipeId())),
+                        match.missing(),
+                        index.missingIngredients(match.recipeId(), pantry)))
+                .toList();
+
+        log.info("PantryService: {} recetas posibles con {} ingredientes (faltando hasta {})",
+                matches.size(), pantryTerms.size(), maxMissing);
+        return new PageImpl<>(content, pageable, matches.size());
+    }
+
+    @Override
+    public void add(Recipe recipe) {
+        index.add(recipe.getId(), recipe.getNormalizedIngredients());
+    }
+
+    @Override
+    public void remove(Recipe recipe) {
+        index.remove(recipe.getId());
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+    }
+}
@@ -0,0 +1,214 @@
+package com.brenda.recetario.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.brenda.recetario.entity.Recipe;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Group commit for recipe inserts. Concurrent callers hand their recipe to a
+ * single writer thread, which waits up to {@code max-delay} for up to
+ * {@code max-size} of them and stores the whole batch with one insertMany.
+ * Each caller blocks until its own batch is written and gets the generated
+ * id, so a request pays at most {@code max-delay} of extra latency.
+ *
+ * Off unless {@code recipes.write.batch.enabled=true}. Metric:
+ * {@code recipes.batch.size} (recipes per insertMany).
+ */
+@Slf4j
+@Component
+public class RecipeBatchWriter {
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long maxDelayNanos;
+    private final Duration waitTimeout;
+    private final BlockingQueue<Pending> queue;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    // Whoever claims it first decides: the writer inserts it, or the caller gives up on it
+    private record Pending(Recipe recipe, CompletableFuture<Recipe> result, AtomicBoolean claimed) {
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    public RecipeBatchWriter(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+            @Value("${recipes.write.batch.enabled:false}") boolean enabled,
+            @Value("${recipes.write.batch.max-size:50}") int maxSize,
+            @Value("${recipes.write.batch.max-delay:PT0.005S}") Duration maxDelay,
+            @Value("${recipes.write.batch.wait-timeout:PT30S}") Duration waitTimeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.maxSize = Math.max(1, maxSize);
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.waitTimeout = waitTimeout;
+        this.queue = new LinkedBlockingQueue<>(this.maxSize * 100);
+        this.batchSizes = DistributionSummary.builder("recipes.batch.size").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled)
+            return;
+        running = true;
+        writer = new Thread(this::run, "recipe-batch-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("RecipeBatchWriter: Escritura agrupada activa (hasta {} recetas o {} ms)", maxSize,
+                TimeUnit.NANOSECONDS.toMillis(maxDelayNanos));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null)
+            return;
+        running = false;
+        writer.interrupt();
+        writer.join(waitTimeout.toMillis());
+        // Whatever arrived while stopping is written before the context closes
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            flush(rest);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Inserts the recipe in the next batch and returns it with its id.
+     * Falls back to a direct insert when the writer is off or the queue is
+     * full. When it gives up waiting, the recipe is guaranteed not to be
+     * written later, so the caller can clean up after the failure.
+     */
+    public Recipe insert(Recipe recipe) {
+        Pending pending = new Pending(recipe, new CompletableFuture<>(), new AtomicBoolean());
+        if (!running || !queue.offer(pending))
+            return mongoTemplate.insert(recipe);
+        // stop() may have drained the queue between the check and the offer
+        if (!running && pending.claim()) {
+            queue.remove(pending);
+            return mongoTemplate.insert(recipe);
+        }
+
+        try {
+            return await(pending);
+        } catch (TimeoutException e) {
+            if (pending.claim()) {
+                queue.remove(pending);
+                pending.result().cancel(false);
+                throw new IllegalStateException("Tiempo de espera agotado guardando la receta", e);
+            }
+        }
+        // The writer took it just in time: its insert is under way and decides the outcome
+        try {
+            return await(pending);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Tiempo de espera agotado guardando la receta", e);
+        }
+    }
+
+    private Recipe await(Pending pending) throws TimeoutException {
+        try {
+            return pending.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException("No se pudo guardar la receta", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.claim()) {
+                queue.remove(pending);
+                pending.result().cancel(false);
+            }
+            throw new IllegalStateException("Interrumpido guardando la receta", e);
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxSize) {
+                    queue.drainTo(batch, maxSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxSize || remaining <= 0)
+                        break;
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Only stop() interrupts: the batch in hand is still written and the loop ends.
+                // The flag is not restored because the driver refuses to work on an interrupted thread
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending> all) {
+        // Callers that timed out already reported a failure: their recipes must not appear later
+        List<Pending> batch = all.stream().filter(Pending::claim).toList();
+        if (batch.isEmpty())
+            return;
+        List<Recipe> recipes = batch.stream().map(Pending::recipe).toList();
+        // Ids set up front tell, after a partial failure, which ones made it
+        recipes.stream().filter(recipe -> recipe.getId() == null)
+                .forEach(recipe -> recipe.setId(new ObjectId().toHexString()));
+        try {
+            mongoTemplate.insertAll(recipes);
+            batchSizes.record(batch.size());
+            batch.forEach(pending -> pending.result().complete(pending.recipe()));
+        } catch (RuntimeException e) {
+            // One bad document must not fail its neighbours: retry them one by one
+            log.warn("RecipeBatchWriter: Falló la inserción de un lote de {} recetas, se reintentan por separado",
+                    batch.size(), e);
+            for (Pending pending : batch) {
+                try {
+                    if (mongoTemplate.exists(new Query(Criteria.where("id").is(pending.recipe().getId())),
+                            Recipe.class)) {
+                        pending.result().complete(pending.recipe());
+                    } else {
+                        pending.result().complete(mongoTemplate.insert(pending.recipe()));
+                    }
+                } catch (RuntimeException single) {
+                    pending.result().completeExceptionally(single);
+                }
+            }
+        }
+    }
+}
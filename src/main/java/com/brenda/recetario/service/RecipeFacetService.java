@@ -0,0 +1,201 @@
+package com.brenda.recetario.service;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.count;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.facet;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.unwind;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.CriteriaDefinition;
+import org.springframework.stereotype.Service;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.enums.RecipeCategory;
+import com.brenda.recetario.enums.SearchStrategy;
+import com.brenda.recetario.events.RecipeCacheFlushEvent;
+import com.brenda.recetario.models.RecipeFacetedSearchResponseDTO;
+import com.brenda.recetario.models.RecipeFacetsDTO;
+import com.brenda.recetario.models.RecipeFilteredResponseDTO;
+import com.brenda.recetario.search.RecipeFilterSnapshot;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Search page plus category/fit counts in a single $facet aggregation. Each
+ * facet ignores its own filter (category counts respect fit and the text,
+ * fit counts respect categories and the text), as a faceted UI expects.
+ * The page itself comes from {@link RecipeService#searchRecipes}, so it is
+ * ordered exactly like /recipes/search (text score or relevance ranking).
+ */
+@Service
+@Slf4j
+public class RecipeFacetService {
+    private final MongoTemplate mongoTemplate;
+    private final RecipeService recipeService;
+    private final RecipeFilterService recipeFilterService;
+    private final RecipeSummaryService recipeSummaryService;
+    private final SearchStrategy searchStrategy;
+    private final Cache<FacetKey, FacetBlock> facetCache;
+
+    public RecipeFacetService(MongoTemplate mongoTemplate,
+            RecipeService recipeService,
+            RecipeFilterService recipeFilterService,
+            RecipeSummaryService recipeSummaryService,
+            @Value("${recipes.search.strategy:REGEX}") SearchStrategy searchStrategy,
+            @Value("${recipes.facets.cache-ttl:30s}") Duration cacheTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.recipeService = recipeService;
+        this.recipeFilterService = recipeFilterService;
+        this.recipeSummaryService = recipeSummaryService;
+        this.searchStrategy = searchStrategy;
+        this.facetCache = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(1_000)
+                .build();
+    }
+
+    @EventListener
+    public void onCacheFlush(RecipeCacheFlushEvent event) {
+        facetCache.invalidateAll();
+    }
+
+    public RecipeFacetedSearchResponseDTO searchWithFacets(
+            List<String> categories,
+            Boolean fit,
+            String search,
+            int page,
+            int size) {
+
+        String[] keywords = RecipeSearchCriteria.splitKeywords(search);
+        if (keywords.length == 0) {
+            Optional<RecipeFacetedSearchResponseDTO> fromSnapshot = snapshotSearch(categories, fit, page, size);
+            if (fromSnapshot.isPresent()) {
+                return fromSnapshot.get();
+            }
+        }
+
+        CriteriaDefinition textCriteria = searchStrategy == SearchStrategy.TEXT
+                ? RecipeSearchCriteria.text(keywords)
+                : RecipeSearchCriteria.keywords(keywords);
+        Criteria categoryCriteria = RecipeSearchCriteria.categories(categories);
+        Criteria fitCriteria = RecipeSearchCriteria.fit(fit);
+
+        FacetKey key = new FacetKey(String.join(" ", keywords),
+                categories == null ? List.of() : categories.stream().sorted().toList(), fit);
+
+        List<RecipeFilteredResponseDTO> content = recipeService.searchRecipes(categories, fit, search, page, size)
+                .getContent();
+
+        FacetBlock cached = facetCache.getIfPresent(key);
+        if (cached != null) {
+            log.info("RecipeFacetService: Facetas obtenidas de caché para {}", key);
+            return new RecipeFacetedSearchResponseDTO(content, page, size, cached.total(), cached.facets());
+        }
+
+        List<AggregationOperation> operations = new ArrayList<>();
+        if (textCriteria != null) {
+            operations.add(match(textCriteria));
+        }
+        operations.add(facet(match(RecipeSearchCriteria.and(categoryCriteria, fitCriteria)), count().as("count"))
+                .as("total")
+                .and(match(RecipeSearchCriteria.and(fitCriteria)), unwind("categories"),
+                        group("categories").count().as("count"))
+                .as("categories")
+                .and(match(RecipeSearchCriteria.and(categoryCriteria)), group("fit").count().as("count"))
+                .as("fit"));
+
+        Document result = mongoTemplate.aggregate(newAggregation(Recipe.class, operations), Recipe.class,
+                Document.class).getUniqueMappedResult();
+        if (result == null) {
+            result = new Document();
+        }
+
+        FacetBlock block = new FacetBlock(readTotal(result), readFacets(result));
+        facetCache.put(key, block);
+
+        log.info("RecipeFacetService: Búsqueda con facetas - total: {}", block.total());
+        return new RecipeFacetedSearchResponseDTO(content, page, size, block.total(), block.facets());
+    }
+
+    // Without keywords both the counts and the page ids come from the in-memory snapshot
+    private Optional<RecipeFacetedSearchResponseDTO> snapshotSearch(List<String> categories, Boolean fit, int page,
+            int size) {
+        Optional<RecipeFilterSnapshot.Counts> counts = recipeFilterService.count(categories, fit);
+        Optional<RecipeFilterSnapshot.Slice> slice = recipeFilterService.filter(categories, fit, (long) page * size,
+                size);
+        if (counts.isEmpty() || slice.isEmpty())
+            return Optional.empty();
+
+        Map<String, Recipe> recipes = recipeSummaryService.findSummaries(slice.get().ids());
+        List<RecipeFilteredResponseDTO> content = slice.get().ids().stream()
+                .map(recipes::get)
+                .filter(Objects::nonNull)
+                .map(RecipeFilteredResponseDTO::new)
+                .toList();
+
+        Map<RecipeCategory, Long> categoryCounts = new EnumMap<>(RecipeCategory.class);
+        for (RecipeCategory category : RecipeCategory.values()) {
+            categoryCounts.put(category, counts.get().categories()[category.ordinal()]);
+        }
+        RecipeFacetsDTO facets = new RecipeFacetsDTO(categoryCounts, counts.get().fit(), counts.get().nonFit());
+
+        log.info("RecipeFacetService: Búsqueda con facetas desde memoria - total: {}", counts.get().total());
+        return Optional.of(new RecipeFacetedSearchResponseDTO(content, page, size, counts.get().total(), facets));
+    }
+
+    private long readTotal(Document result) {
+        List<Document> total = result.getList("total", Document.class, List.of());
+        return total.isEmpty() ? 0 : ((Number) total.get(0).get("count")).longValue();
+    }
+
+    private RecipeFacetsDTO readFacets(Document result) {
+        Map<RecipeCategory, Long> categoryCounts = new EnumMap<>(RecipeCategory.class);
+        for (RecipeCategory category : RecipeCategory.values()) {
+            categoryCounts.put(category, 0L);
+        }
+        for (Document doc : result.getList("categories", Document.class, List.of())) {
+            Object id = doc.get("_id");
+            try {
+                categoryCounts.put(RecipeCategory.valueOf(String.valueOf(id)),
+                        ((Number) doc.get("count")).longValue());
+            } catch (IllegalArgumentException e) {
+                log.warn("RecipeFacetService: Categoría desconocida en la base de datos: {}", id);
+            }
+        }
+
+        long fitCount = 0;
+        long nonFitCount = 0;
+        for (Document doc : result.getList("fit", Document.class, List.of())) {
+            long count = ((Number) doc.get("count")).longValue();
+            if (Boolean.TRUE.equals(doc.get("_id"))) {
+                fitCount += count;
+            } else {
+                nonFitCount += count;
+            }
+        }
+        return new RecipeFacetsDTO(categoryCounts, fitCount, nonFitCount);
+    }
+
+    private record FacetKey(String search, List<String> categories, Boolean fit) {
+    }
+
+    private record FacetBlock(long total, RecipeFacetsDTO facets) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.brenda.recetario.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.enums.RecipeCategory;
+import com.brenda.recetario.search.RecipeFilterSnapshot;
+import com.brenda.recetario.search.RecipeIndex;
+
+/**
+ * Answers searches that only filter by categories/fit from the in-memory
+ * columnar snapshot. Returns empty until the snapshot has been loaded, so
+ * callers fall back to Mongo.
+ */
+@Service
+public class RecipeFilterService implements RecipeIndex {
+    private final RecipeFilterSnapshot snapshot = new RecipeFilterSnapshot();
+    private volatile boolean loaded;
+
+    public Optional<RecipeFilterSnapshot.Slice> filter(List<String> categories, Boolean fit, long offset,
+            int size) {
+        if (!loaded)
+            return Optional.empty();
+        return Optional.of(snapshot.filter(categoryMask(categories), fit, offset, size));
+    }
+
+    public Optional<RecipeFilterSnapshot.Counts> count(List<String> categories, Boolean fit) {
+        if (!loaded)
+            return Optional.empty();
+        return Optional.of(snapshot.count(categoryMask(categories), fit));
+    }
+
+    // Same semantics as the $in filter: unknown names match nothing
+    private int categoryMask(List<String> categories) {
+        if (categories == null || categories.isEmpty())
+            return RecipeFilterSnapshot.ANY_CATEGORY;
+
+        List<RecipeCategory> known = new ArrayList<>();
+        for (String category : categories) {
+            try {
+                known.add(RecipeCategory.valueOf(category));
+            } catch (IllegalArgumentException e) {
+                // Ignored, no recipe can have it
+            }
+        }
+        return RecipeFilterSnapshot.mask(known);
+    }
+
+    @Override
+    public void add(Recipe recipe) {
+        snapshot.add(recipe.getId(), recipe.getCategories(), recipe.getFit());
+    }
+
+    @Override
+    public void remove(Recipe recipe) {
+        snapshot.remove(recipe.getId());
+    }
+
+    @Override
+    public void clear() {
+        loaded = false;
+        snapshot.clear();
+    }
+
+    @Override
+    public void loaded() {
+        loaded = true;
+    }
+}
@@ -0,0 +1,136 @@
+package com.brenda.recetario.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.brenda.recetario.events.RecipeCacheFlushEvent;
+import com.brenda.recetario.events.RecipeChangedEvent;
+import com.brenda.recetario.models.RecipeResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Ready to send UTF-8 JSON of the full recipe detail, with its ETag and,
+ * for bodies of at least {@code gzip-min-size}, a gzip copy. A hit is written
+ * to the response as is: no DTO, no Jackson, no compression per request.
+ * Entries are dropped on every RecipeChangedEvent for the recipe (remote
+ * ones included) and live at most {@code ttl}, which bounds staleness when
+ * the invalidation bus is off.
+ *
+ * Metrics: {@code cache.*} tagged {@code cache=recipes.json}.
+ */
+@Component
+public class RecipeJsonCache {
+    private final ObjectMapper objectMapper;
+    private final int gzipMinSize;
+    private final Cache<String, RecipeJson> cache;
+    // Bumped on every invalidation so a load that raced with an update is not kept
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public record RecipeJson(byte[] json, byte[] gzip, String etag) {
+
+        // If-None-Match may list several tags, weak ones included
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null)
+                return false;
+            for (String tag : ifNoneMatch.split(",")) {
+                String trimmed = tag.trim();
+                if (trimmed.startsWith("W/")) {
+                    trimmed = trimmed.substring(2);
+                }
+                if (trimmed.equals("*") || trimmed.equals(etag))
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    public RecipeJsonCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${recipes.cache.json.max-size:16MB}") DataSize maxSize,
+            @Value("${recipes.cache.json.ttl:PT10M}") Duration ttl,
+            @Value("${recipes.cache.json.gzip-min-size:1KB}") DataSize gzipMinSize) {
+        this.objectMapper = objectMapper;
+        this.gzipMinSize = (int) gzipMinSize.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String id, RecipeJson entry) -> entry.json().length
+                        + (entry.gzip() != null ? entry.gzip().length : 0))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "recipes.json");
+    }
+
+    public RecipeJson get(String recipeId, Supplier<RecipeResponseDTO> loader) {
+        RecipeJson cached = cache.getIfPresent(recipeId);
+        if (cached != null)
+            return cached;
+
+        long generation = invalidations.get();
+        RecipeJson loaded = serialize(loader.get());
+        cache.put(recipeId, loaded);
+        // Checked after the put: an update landing in between always drops it
+        if (invalidations.get() != generation) {
+            cache.asMap().remove(recipeId, loaded);
+        }
+        return loaded;
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        invalidations.incrementAndGet();
+        cache.invalidate(event.getRecipeId());
+    }
+
+    @EventListener
+    public void onCacheFlush(RecipeCacheFlushEvent event) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private RecipeJson serialize(RecipeResponseDTO dto) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la receta " + dto.getId(), e);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        String etag = "\"" + (dto.getVersion() != null ? dto.getVersion() : 0) + "-"
+                + Long.toHexString(crc.getValue()) + "\"";
+        return new RecipeJson(json, json.length >= gzipMinSize ? gzip(json) : null, etag);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,105 @@
+package com.brenda.recetario.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.utils.TextNormalizer;
+
+/**
+ * Scores keyword search candidates and keeps only the best K in a bounded
+ * min-heap, so ranking costs O(n log K) time and O(K) memory.
+ */
+final class RecipeRanker {
+    static final double TITLE_EXACT = 8;
+    static final double TITLE_SUBSTRING = 4;
+    static final double INGREDIENT_EXACT = 3;
+    static final double INGREDIENT_SUBSTRING = 1;
+    static final double COVERAGE = 2;
+
+    // Worst candidate first: lower score, then the one that arrived later
+    private static final Comparator<Ranked> WORST_FIRST = Comparator
+            .comparingDouble(Ranked::score)
+            .thenComparing(Comparator.comparingLong(Ranked::sequence).reversed());
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private RecipeRanker() {
+    }
+
+    record Ranked(Recipe recipe, double score, long sequence) {
+    }
+
+    record RankedPage(List<Recipe> recipes, long total) {
+    }
+
+    /**
+     * Consumes every candidate and returns the top {@code k} in score order
+     * (ties keep the natural order) together with the number of candidates.
+     */
+    static RankedPage topK(Iterator<Recipe> candidates, String[] keywords, int k) {
+        // k comes from the request: the heap grows as candidates arrive instead of being sized up front
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(Math.min(Math.max(1, k), INITIAL_CAPACITY), WORST_FIRST);
+        long sequence = 0;
+
+        while (candidates.hasNext()) {
+            Recipe recipe = candidates.next();
+            if (k <= 0) {
+                sequence++;
+                continue;
+            }
+            Ranked ranked = new Ranked(recipe, score(recipe, keywords), sequence++);
+            if (heap.size() < k) {
+                heap.add(ranked);
+            } else if (WORST_FIRST.compare(ranked, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(ranked);
+            }
+        }
+
+        List<Ranked> best = new ArrayList<>(heap);
+        best.sort(WORST_FIRST.reversed());
+        return new RankedPage(best.stream().map(Ranked::recipe).toList(), sequence);
+    }
+
+    static double score(Recipe recipe, String[] keywords) {
+        double score = 0;
+
+        String title = recipe.getNormalizedTitle() != null ? recipe.getNormalizedTitle() : "";
+        for (String keyword : keywords) {
+            if (TextNormalizer.containsWord(title, keyword)) {
+                score += TITLE_EXACT;
+            } else if (title.contains(keyword)) {
+                score += TITLE_SUBSTRING;
+            }
+        }
+
+        List<String> ingredients = recipe.getNormalizedIngredients() != null
+                ? recipe.getNormalizedIngredients()
+                : List.of();
+        int matchedIngredients = 0;
+        for (String ingredient : ingredients) {
+            double best = 0;
+            for (String keyword : keywords) {
+                if (TextNormalizer.containsWord(ingredient, keyword)) {
+                    best = INGREDIENT_EXACT;
+                    break;
+                } else if (ingredient.contains(keyword)) {
+                    best = INGREDIENT_SUBSTRING;
+                }
+            }
+            if (best > 0) {
+                matchedIngredients++;
+                score += best;
+            }
+        }
+
+        if (!ingredients.isEmpty()) {
+            score += COVERAGE * matchedIngredients / ingredients.size();
+        }
+        return score;
+    }
+}
@@ -0,0 +1,106 @@
+package com.brenda.recetario.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import com.brenda.recetario.utils.TextNormalizer;
+
+/**
+ * Builds the pieces of the recipe search filter so that plain searches and
+ * faceted aggregations share the same semantics.
+ */
+final class RecipeSearchCriteria {
+    static final String TEXT_LANGUAGE = "spanish";
+
+    private RecipeSearchCriteria() {
+    }
+
+    static Criteria categories(List<String> categories) {
+        if (categories == null || categories.isEmpty())
+            return null;
+        return Criteria.where("categories").in(categories);
+    }
+
+    static Criteria fit(Boolean fit) {
+        if (fit == null)
+            return null;
+        return Criteria.where("fit").is(fit);
+    }
+
+    static String[] splitKeywords(String search) {
+        if (search == null || search.isBlank())
+            return new String[0];
+        // Normalize the search string
+        return TextNormalizer.normalize(search).split("\\s+");
+    }
+
+    static Criteria keywords(String[] keywords) {
+        return keywordGroups(Arrays.stream(keywords).map(List::of).toList());
+    }
+
+    // Every group must match; a group matches when any of its terms does
+    static Criteria keywordGroups(List<? extends Collection<String>> groups) {
+        if (groups.isEmpty())
+            return null;
+
+        List<Criteria> keywordCriteria = new ArrayList<>();
+
+        for (Collection<String> group : groups) {
+            // Special characters escaping for regex
+            String escaped = group.stream().map(Pattern::quote).collect(Collectors.joining("|"));
+            String regex = group.size() == 1 ? ".*" + escaped + ".*" : ".*(?:" + escaped + ").*";
+
+            keywordCriteria.add(new Criteria().orOperator(
+                    Criteria.where("normalizedTitle").regex(regex),
+                    Criteria.where("normalizedIngredients").regex(regex)));
+        }
+
+        // Contain all words:
+        return new Criteria().andOperator(keywordCriteria.toArray(new Criteria[0]));
+
+        // Match at least one word:
+        // return new Criteria().orOperator(keywordCriteria.toArray(new Criteria[0]));
+    }
+
+    // $text match over the weighted title/ingredients index, any word matches
+    static TextCriteria text(String[] keywords) {
+        if (keywords.length == 0)
+            return null;
+        return TextCriteria.forLanguage(TEXT_LANGUAGE).matchingAny(keywords);
+    }
+
+    // Text query sorted by relevance (textScore) with the category/fit filters
+    static Query textQuery(TextCriteria text, Criteria filters) {
+        Query query = TextQuery.queryText(text).sortByScore();
+        if (filters != null) {
+            query.addCriteria(filters);
+        }
+        return query;
+    }
+
+    // Combines the non null criteria, an empty Criteria matches everything
+    static Criteria and(Criteria... criteria) {
+        Criteria combined = andOrNull(criteria);
+        return combined != null ? combined : new Criteria();
+    }
+
+    // Same as and(), but null when there is nothing to filter
+    static Criteria andOrNull(Criteria... criteria) {
+        Criteria[] present = Arrays.stream(criteria).filter(Objects::nonNull).toArray(Criteria[]::new);
+        if (present.length == 0)
+            return null;
+        if (present.length == 1)
+            return present[0];
+        return new Criteria().andOperator(present);
+    }
+}
@@ -1,15 +1,26 @@
 package com.brenda.recetario.service;
 
-import java.text.Normalizer;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Pattern;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -18,15 +29,24 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.core.MongoTemplate;
 
 import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.enums.BulkDeleteStatus;
+import com.brenda.recetario.enums.SearchStrategy;
+import com.brenda.recetario.events.RecipeChangedEvent;
 import com.brenda.recetario.exceptions.ImageDeletionException;
 import com.brenda.recetario.exceptions.ImageUploadException;
 import com.brenda.recetario.exceptions.InvalidDataException;
+import com.brenda.recetario.exceptions.RecipeConflictException;
 import com.brenda.recetario.exceptions.RecipeNotFoundException;
+import com.brenda.recetario.models.ImageReferenceDTO;
+import com.brenda.recetario.models.RecipeBulkDeleteResultDTO;
 import com.brenda.recetario.models.RecipeCreateDTO;
+import com.brenda.recetario.models.RecipeFields;
 import com.brenda.recetario.models.RecipeFilteredResponseDTO;
 import com.brenda.recetario.models.RecipeResponseDTO;
 import com.brenda.recetario.models.RecipeUpdateDTO;
 import com.brenda.recetario.repository.RecipeRepository;
+import com.brenda.recetario.search.RecipeFilterSnapshot;
+import com.brenda.recetario.utils.TextNormalizer;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,9 +56,23 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @RequiredArgsConstructor
 public class RecipeService {
+    static final int MAX_BULK_DELETE = 100;
+
     private final RecipeRepository recipeRepository;
     private final ImageService imageService;
     private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FuzzySearchService fuzzySearchService;
+    private final RecipeFilterService recipeFilterService;
+    private final RecipeSummaryService recipeSummaryService;
+    private final RequestCoalescer requestCoalescer;
+    private final RecipeBatchWriter recipeBatchWriter;
+
+    @Value("${recipes.search.strategy:REGEX}")
+    private SearchStrategy searchStrategy = SearchStrategy.REGEX;
+
+    @Value("${recipes.search.ranking.enabled:true}")
+    private boolean rankingEnabled = true;
 
     @Transactional
     public Recipe createRecipe(RecipeCreateDTO recipeDTO, MultipartFile image) {
@@ -53,18 +87,24 @@ public class RecipeService {
         // Normalization to use in search methods
         recipe.setNormalizedTitle(removeAccents(recipeDTO.getTitle().toLowerCase()));
         recipe.setNormalizedIngredients(normalizeIngredientsList(recipeDTO.getIngredients()));
+        recipe.setLastModified(Instant.now());
 
         String imageUrl = null;
 
         try {
-            if (image != null && !image.isEmpty()) {
-                imageUrl = imageService.uploadImage(image);
+            imageUrl = storeImage(image, recipeDTO.getImageRef());
+            if (imageUrl != null) {
                 recipe.setImageUrl(imageUrl);
                 log.info("RecipeService: Imagen subida correctamente: {}", imageUrl);
             }
 
-            recipeRepository.save(recipe);
+            if (recipeBatchWriter.isEnabled()) {
+                recipeBatchWriter.insert(recipe);
+            } else {
+                recipeRepository.save(recipe);
+            }
             log.info("RecipeService: Receta creada correctamente: {}", recipe.getTitle());
+            eventPublisher.publishEvent(new RecipeChangedEvent(recipe.getId(), recipe));
             return recipe;
 
         } catch (ImageUploadException e) {
@@ -85,6 +125,17 @@ public class RecipeService {
     }
 
     public RecipeResponseDTO getRecipeById(String id) {
+        return requestCoalescer.execute("getRecipeById", Arrays.asList(id, null), () -> findRecipeById(id));
+    }
+
+    public RecipeResponseDTO getRecipeById(String id, Set<String> fields) {
+        if (fields == null)
+            return getRecipeById(id);
+        return requestCoalescer.execute("getRecipeById", Arrays.asList(id, fields),
+                () -> findRecipeById(id, fields));
+    }
+
+    private RecipeResponseDTO findRecipeById(String id) {
         Recipe recipe = recipeRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("RecipeService: No se encontró receta con ID: {}", id);
@@ -95,47 +146,110 @@ public class RecipeService {
         return new RecipeResponseDTO(recipe);
     }
 
+    private RecipeResponseDTO findRecipeById(String id, Set<String> fields) {
+        Query query = new Query(Criteria.where("id").is(id));
+        query.fields().include(RecipeFields.projection(fields, RecipeFields.DETAIL).toArray(new String[0]));
+
+        Recipe recipe = mongoTemplate.findOne(query, Recipe.class);
+        if (recipe == null) {
+            log.warn("RecipeService: No se encontró receta con ID: {}", id);
+            throw new RecipeNotFoundException("La receta especificada no existe.");
+        }
+
+        log.info("RecipeService: Receta encontrada con campos {}: {}", fields, id);
+        return new RecipeResponseDTO(recipe);
+    }
+
+    /**
+     * Partial update in a single findAndModify: only the fields present in the
+     * DTO are $set, and the normalized fields only when title/ingredients
+     * change. When the DTO carries a version, a newer one in the database
+     * means someone else updated the recipe first.
+     */
     @Transactional
     public Recipe updateRecipe(RecipeUpdateDTO recipeDTO, MultipartFile image) {
-        Recipe recipe = recipeRepository.findById(recipeDTO.getId())
-                .orElseThrow(() -> new RecipeNotFoundException("La receta especificada no existe."));
-
-        recipe.setTitle(recipeDTO.getTitle());
-        recipe.setCategories(recipeDTO.getCategories());
-        recipe.setIngredients(recipeDTO.getIngredients());
-        recipe.setInstructions(recipeDTO.getInstructions());
-        recipe.setFit(recipeDTO.getFit());
+        Update update = new Update();
+        if (recipeDTO.getTitle() != null) {
+            update.set("title", recipeDTO.getTitle());
+            update.set("normalizedTitle", removeAccents(recipeDTO.getTitle().toLowerCase()));
+        }
+        if (recipeDTO.getCategories() != null) {
+            update.set("categories", recipeDTO.getCategories());
+        }
+        if (recipeDTO.getIngredients() != null) {
+            update.set("ingredients", recipeDTO.getIngredients());
+            update.set("normalizedIngredients", normalizeIngredientsList(recipeDTO.getIngredients()));
+        }
+        if (recipeDTO.getInstructions() != null) {
+            update.set("instructions", recipeDTO.getInstructions());
+        }
+        if (recipeDTO.getFit() != null) {
+            update.set("fit", recipeDTO.getFit());
+        }
 
-        // Normalization to use in search methods
-        recipe.setNormalizedTitle(removeAccents(recipeDTO.getTitle().toLowerCase()));
-        recipe.setNormalizedIngredients(normalizeIngredientsList(recipeDTO.getIngredients()));
+        boolean hasImage = (image != null && !image.isEmpty()) || recipeDTO.getImageRef() != null;
+        if (update.getUpdateObject().isEmpty() && !hasImage) {
+            throw new InvalidDataException("No se indicaron campos para actualizar");
+        }
 
-        try {
-            if (image != null && !image.isEmpty()) {
-                String oldImageUrl = recipe.getImageUrl();
-                String newImageUrl = imageService.uploadImage(image);
+        String newImageUrl = null;
+        if (hasImage) {
+            try {
+                newImageUrl = storeImage(image, recipeDTO.getImageRef());
                 log.info("RecipeService: Nueva imagen subida correctamente: {}", newImageUrl);
-                recipe.setImageUrl(newImageUrl);
-
-                if (oldImageUrl != null && !oldImageUrl.isEmpty()) {
-                    try {
-                        imageService.deleteImage(oldImageUrl);
-                        log.info("RecipeService: Imagen anterior eliminada: {}", oldImageUrl);
-                    } catch (ImageDeletionException ex) {
-                        log.error("RecipeService: No se pudo eliminar la imagen anterior", ex);
-                    }
-                }
+            } catch (ImageUploadException e) {
+                log.error("RecipeService: Error subiendo imagen", e);
+                throw new InvalidDataException("No se pudo subir la nueva imagen", e);
             }
-            recipeRepository.save(recipe);
-            log.info("RecipeService: Receta actualizada correctamente: {}", recipe.getTitle());
-            return recipe;
-        } catch (ImageUploadException e) {
-            log.error("RecipeService: Error subiendo imagen", e);
-            throw new InvalidDataException("No se pudo subir la nueva imagen", e);
+            update.set("imageUrl", newImageUrl);
+        }
+        Instant now = Instant.now();
+        update.set("lastModified", now);
+        update.inc("version", 1);
+
+        Criteria criteria = Criteria.where("id").is(recipeDTO.getId());
+        if (recipeDTO.getVersion() != null) {
+            criteria = criteria.and("version").is(recipeDTO.getVersion());
+        }
+
+        Recipe recipe;
+        try {
+            // The previous state tells which image to delete, the new one is rebuilt below
+            recipe = mongoTemplate.findAndModify(new Query(criteria), update,
+                    FindAndModifyOptions.options().returnNew(false), Recipe.class);
         } catch (Exception e) {
-            log.error("RecipeService: Error actualizando la receta: {}", recipe.getTitle(), e);
+            log.error("RecipeService: Error actualizando la receta: {}", recipeDTO.getId(), e);
+            discardImage(newImageUrl);
             throw new InvalidDataException("Error actualizando la receta: " + e.getMessage(), e);
         }
+
+        if (recipe == null) {
+            discardImage(newImageUrl);
+            if (recipeDTO.getVersion() != null
+                    && mongoTemplate.exists(new Query(Criteria.where("id").is(recipeDTO.getId())), Recipe.class)) {
+                log.warn("RecipeService: Conflicto de versión al actualizar la receta: {}", recipeDTO.getId());
+                throw new RecipeConflictException(
+                        "La receta fue modificada por otra persona. Vuelva a cargarla e intente nuevamente.");
+            }
+            throw new RecipeNotFoundException("La receta especificada no existe.");
+        }
+
+        String oldImageUrl = recipe.getImageUrl();
+        applyUpdate(recipe, recipeDTO, newImageUrl, now);
+
+        if (newImageUrl != null && oldImageUrl != null && !oldImageUrl.isEmpty()) {
+            try {
+                // Same content re-uploaded: this only drops the extra reference, Cloudinary is not called
+                imageService.deleteImage(oldImageUrl);
+                log.info("RecipeService: Imagen anterior liberada: {}", oldImageUrl);
+            } catch (ImageDeletionException ex) {
+                log.error("RecipeService: No se pudo eliminar la imagen anterior", ex);
+            }
+        }
+
+        log.info("RecipeService: Receta actualizada correctamente: {}", recipe.getTitle());
+        eventPublisher.publishEvent(new RecipeChangedEvent(recipe.getId(), recipe));
+        return recipe;
     }
 
     @Transactional
@@ -157,6 +271,65 @@ public class RecipeService {
 
         recipeRepository.delete(recipe);
         log.info("RecipeService: Receta eliminada exitosamente: {}", recipe.getTitle());
+        eventPublisher.publishEvent(new RecipeChangedEvent(recipe.getId(), null));
+    }
+
+    /**
+     * Deletes every recipe in {@code ids} with one query and then releases
+     * their images in batches. Unknown ids are reported as NOT_FOUND instead
+     * of failing the whole request.
+     */
+    @Transactional
+    public List<RecipeBulkDeleteResultDTO> deleteRecipes(List<String> ids) {
+        List<String> distinct = ids == null ? List.of()
+                : ids.stream().filter(Objects::nonNull).map(String::trim).filter(id -> !id.isEmpty()).distinct()
+                        .toList();
+        if (distinct.isEmpty()) {
+            throw new InvalidDataException("Debe indicar al menos un ID");
+        }
+        if (distinct.size() > MAX_BULK_DELETE) {
+            throw new InvalidDataException("No se pueden eliminar más de " + MAX_BULK_DELETE + " recetas a la vez");
+        }
+
+        Query query = new Query(Criteria.where("id").in(distinct));
+        query.fields().include("id", "imageUrl");
+        Map<String, String> images = new HashMap<>();
+        List<String> found = new ArrayList<>();
+        for (Recipe recipe : mongoTemplate.find(query, Recipe.class)) {
+            found.add(recipe.getId());
+            if (recipe.getImageUrl() != null && !recipe.getImageUrl().isEmpty()) {
+                images.put(recipe.getId(), recipe.getImageUrl());
+            }
+        }
+
+        if (!found.isEmpty()) {
+            long deleted = mongoTemplate.remove(new Query(Criteria.where("id").in(found)), Recipe.class)
+                    .getDeletedCount();
+            log.info("RecipeService: {} recetas eliminadas en bloque", deleted);
+        }
+
+        Map<String, Boolean> imageResults = Map.of();
+        if (!images.isEmpty()) {
+            try {
+                imageResults = imageService.deleteImages(images.values());
+            } catch (Exception e) {
+                log.error("RecipeService: No se pudieron eliminar las imágenes de las recetas", e);
+            }
+        }
+
+        Set<String> foundIds = new HashSet<>(found);
+        List<RecipeBulkDeleteResultDTO> results = new ArrayList<>(distinct.size());
+        for (String id : distinct) {
+            if (!foundIds.contains(id)) {
+                results.add(new RecipeBulkDeleteResultDTO(id, BulkDeleteStatus.NOT_FOUND, null));
+                continue;
+            }
+            String imageUrl = images.get(id);
+            Boolean imageDeleted = imageUrl == null ? null : imageResults.getOrDefault(imageUrl, false);
+            results.add(new RecipeBulkDeleteResultDTO(id, BulkDeleteStatus.DELETED, imageDeleted));
+            eventPublisher.publishEvent(new RecipeChangedEvent(id, null));
+        }
+        return results;
     }
 
     public Page<RecipeFilteredResponseDTO> searchRecipes(
@@ -165,51 +338,84 @@ public class RecipeService {
             String search,
             int page,
             int size) {
+        return searchRecipes(categories, fit, search, page, size, null);
+    }
+
+    public Page<RecipeFilteredResponseDTO> searchRecipes(
+            List<String> categories,
+            Boolean fit,
+            String search,
+            int page,
+            int size,
+            Set<String> fields) {
+        return searchRecipes(categories, fit, search, page, size, fields, false);
+    }
 
-        Query query = new Query();
+    public Page<RecipeFilteredResponseDTO> searchRecipes(
+            List<String> categories,
+            Boolean fit,
+            String search,
+            int page,
+            int size,
+            Set<String> fields,
+            boolean fuzzy) {
+        // Identical concurrent searches share one query
+        return requestCoalescer.execute("searchRecipes",
+                Arrays.asList(categories, fit, search, page, size, fields, fuzzy),
+                () -> findRecipes(categories, fit, search, page, size, fields, fuzzy));
+    }
 
-        List<Criteria> criteriaList = new ArrayList<>();
+    private Page<RecipeFilteredResponseDTO> findRecipes(
+            List<String> categories,
+            Boolean fit,
+            String search,
+            int page,
+            int size,
+            Set<String> fields,
+            boolean fuzzy) {
 
-        if (categories != null && !categories.isEmpty()) {
-            criteriaList.add(Criteria.where("categories").in(categories));
+        // Each keyword becomes a group of alternatives (itself plus typo corrections)
+        List<Set<String>> keywordGroups = Arrays.stream(RecipeSearchCriteria.splitKeywords(search))
+                .map(keyword -> fuzzy ? fuzzySearchService.expand(keyword) : Set.of(keyword))
+                .toList();
+        String[] keywords = keywordGroups.stream().flatMap(Set::stream).distinct().toArray(String[]::new);
+        if (fuzzy) {
+            log.info("RecipeService: Búsqueda tolerante a errores, palabras expandidas: {}", keywordGroups);
         }
-
-        if (fit != null) {
-            criteriaList.add(Criteria.where("fit").is(fit));
+        Criteria filters = RecipeSearchCriteria.andOrNull(
+                RecipeSearchCriteria.categories(categories),
+                RecipeSearchCriteria.fit(fit));
+
+        Query query;
+        if (searchStrategy == SearchStrategy.TEXT && keywords.length > 0) {
+            // Stemmed $text match, most relevant recipes first
+            TextCriteria text = RecipeSearchCriteria.text(keywords);
+            query = RecipeSearchCriteria.textQuery(text, filters);
+        } else {
+            query = new Query(RecipeSearchCriteria.and(filters, RecipeSearchCriteria.keywordGroups(keywordGroups)));
         }
 
-        if (search != null && !search.isBlank()) {
-            // Normalize the search string
-            String normalizedSearch = removeAccents(search.toLowerCase().trim());
-            String[] keywords = normalizedSearch.split("\\s+");
-            List<Criteria> keywordCriteria = new ArrayList<>();
-
-            for (String keyword : keywords) {
-                // Special characters escaping for regex
-                String escaped = Pattern.quote(keyword);
-
-                keywordCriteria.add(new Criteria().orOperator(
-                        Criteria.where("normalizedTitle").regex(".*" + escaped + ".*"),
-                        Criteria.where("normalizedIngredients").regex(".*" + escaped + ".*")));
-            }
-
-            // Contain all words:
-            criteriaList.add(new Criteria().andOperator(keywordCriteria.toArray(new Criteria[0])));
+        Pageable pageable = PageRequest.of(page, size);
+        List<String> projection = RecipeFields.projection(fields, RecipeFields.SUMMARY);
 
-            // Match at least one word:
-            // criteriaList.add(new Criteria().orOperator(keywordCriteria.toArray(new
-            // Criteria[0])));
+        if (searchStrategy == SearchStrategy.REGEX && rankingEnabled && keywords.length > 0) {
+            return rankedSearch(query, keywords, pageable, projection);
         }
 
-        // Combine all criteria
-        if (!criteriaList.isEmpty()) {
-            query.addCriteria(new Criteria().andOperator(criteriaList.toArray(new Criteria[0])));
+        if (keywords.length == 0) {
+            Optional<RecipeFilterSnapshot.Slice> slice = recipeFilterService.filter(categories, fit,
+                    pageable.getOffset(), size);
+            if (slice.isPresent()) {
+                return snapshotPage(slice.get(), pageable, projection);
+            }
         }
 
         // Pagination
-        Pageable pageable = PageRequest.of(page, size);
         query.with(pageable);
 
+        // Only read what the summary DTO (or the requested fields) needs
+        query.fields().include(projection.toArray(new String[0]));
+
         // Execute the query
         List<Recipe> recipes = mongoTemplate.find(query, Recipe.class);
         long total = mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Recipe.class);
@@ -222,24 +428,94 @@ public class RecipeService {
         return new PageImpl<>(dtos, pageable, total);
     }
 
-    // Auxiliary method
-    private List<String> normalizeIngredientsList(List<String> ingredients) {
-        if (ingredients == null)
-            return List.of();
-        return ingredients.stream()
+    // Streams every keyword match once, keeping only the best (page + 1) * size
+    private Page<RecipeFilteredResponseDTO> rankedSearch(Query query, String[] keywords, Pageable pageable,
+            List<String> projection) {
+        query.fields().include(projection.toArray(new String[0]));
+        query.fields().include("normalizedTitle", "normalizedIngredients");
+
+        int k = (int) Math.min(Integer.MAX_VALUE, (long) (pageable.getPageNumber() + 1) * pageable.getPageSize());
+
+        RecipeRanker.RankedPage ranked;
+        try (Stream<Recipe> candidates = mongoTemplate.stream(query, Recipe.class)) {
+            ranked = RecipeRanker.topK(candidates.iterator(), keywords, k);
+        }
+
+        List<RecipeFilteredResponseDTO> dtos = ranked.recipes().stream()
+                .skip(pageable.getOffset())
+                .map(RecipeFilteredResponseDTO::new)
+                .toList();
+
+        return new PageImpl<>(dtos, pageable, ranked.total());
+    }
+
+    // Ids and total come from memory, Mongo only loads the page
+    private Page<RecipeFilteredResponseDTO> snapshotPage(RecipeFilterSnapshot.Slice slice, Pageable pageable,
+            List<String> projection) {
+        Map<String, Recipe> recipes = recipeSummaryService.findSummaries(slice.ids(), projection);
+
+        List<RecipeFilteredResponseDTO> dtos = slice.ids().stream()
+                .map(recipes::get)
                 .filter(Objects::nonNull)
-                .map(String::trim)
-                .map(String::toLowerCase)
-                .map(this::removeAccents)
-                .filter(s -> !s.isBlank())
+                .map(RecipeFilteredResponseDTO::new)
                 .toList();
+
+        return new PageImpl<>(dtos, pageable, slice.total());
+    }
+
+    // Same changes the $set applied, on the state read before it
+    private void applyUpdate(Recipe recipe, RecipeUpdateDTO recipeDTO, String newImageUrl, Instant now) {
+        if (recipeDTO.getTitle() != null) {
+            recipe.setTitle(recipeDTO.getTitle());
+            recipe.setNormalizedTitle(removeAccents(recipeDTO.getTitle().toLowerCase()));
+        }
+        if (recipeDTO.getCategories() != null) {
+            recipe.setCategories(recipeDTO.getCategories());
+        }
+        if (recipeDTO.getIngredients() != null) {
+            recipe.setIngredients(recipeDTO.getIngredients());
+            recipe.setNormalizedIngredients(normalizeIngredientsList(recipeDTO.getIngredients()));
+        }
+        if (recipeDTO.getInstructions() != null) {
+            recipe.setInstructions(recipeDTO.getInstructions());
+        }
+        if (recipeDTO.getFit() != null) {
+            recipe.setFit(recipeDTO.getFit());
+        }
+        if (newImageUrl != null) {
+            recipe.setImageUrl(newImageUrl);
+        }
+        recipe.setLastModified(now);
+        recipe.setVersion(recipe.getVersion() != null ? recipe.getVersion() + 1 : 1L);
+    }
+
+    // A direct upload reference wins over the multipart file; null when there is neither
+    private String storeImage(MultipartFile image, ImageReferenceDTO imageRef) {
+        if (imageRef != null)
+            return imageService.resolveUploadedImage(imageRef);
+        if (image != null && !image.isEmpty())
+            return imageService.uploadImage(image);
+        return null;
+    }
+
+    // Removes an image uploaded for an update that did not happen
+    private void discardImage(String imageUrl) {
+        if (imageUrl == null)
+            return;
+        try {
+            imageService.deleteImage(imageUrl);
+            log.warn("RecipeService: Imagen eliminada por error: {}", imageUrl);
+        } catch (ImageDeletionException ex) {
+            log.error("RecipeService: No se pudo eliminar la imagen luego del error", ex);
+        }
+    }
+
+    // Auxiliary method
+    private List<String> normalizeIngredientsList(List<String> ingredients) {
+        return TextNormalizer.normalizeAll(ingredients);
     }
 
     private String removeAccents(String input) {
-        if (input == null)
-            return "";
-        return Normalizer
-                .normalize(input, Normalizer.Form.NFD)
-                .replaceAll("\\p{M}", ""); // remove accents
+        return TextNormalizer.removeAccents(input);
     }
 }
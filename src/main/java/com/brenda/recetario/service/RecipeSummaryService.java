@@ -0,0 +1,43 @@
+package com.brenda.recetario.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.models.RecipeFields;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Loads the summary fields of the recipes picked by an in-memory index, in a
+ * single projected query.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecipeSummaryService {
+    private final MongoTemplate mongoTemplate;
+
+    public Map<String, Recipe> findSummaries(Collection<String> ids) {
+        return findSummaries(ids, RecipeFields.SUMMARY);
+    }
+
+    public Map<String, Recipe> findSummaries(Collection<String> ids, Collection<String> projection) {
+        if (ids.isEmpty())
+            return Map.of();
+
+        Query query = new Query(Criteria.where("id").in(ids));
+        query.fields().include(projection.toArray(new String[0]));
+
+        Map<String, Recipe> byId = new HashMap<>();
+        for (Recipe recipe : mongoTemplate.find(query, Recipe.class)) {
+            byId.put(recipe.getId(), recipe);
+        }
+        return byId;
+    }
+}
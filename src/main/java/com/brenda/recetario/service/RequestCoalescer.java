@@ -0,0 +1,67 @@
+package com.brenda.recetario.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Single-flight for identical concurrent reads: the first caller with a key
+ * runs the query and every caller arriving while it is in flight waits for
+ * the same result (or exception). Nothing is cached once it completes.
+ *
+ * Metrics: {@code recipes.coalescer.calls} tagged with the operation and
+ * {@code result=executed|collapsed}.
+ */
+@Component
+public class RequestCoalescer {
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    private record Key(String operation, Object key) {
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> loader) {
+        Key flightKey = new Key(operation, key);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, future);
+
+        if (existing != null) {
+            meterRegistry.counter("recipes.coalescer.calls", "operation", operation, "result", "collapsed")
+                    .increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause)
+                    throw cause;
+                throw e;
+            }
+        }
+
+        meterRegistry.counter("recipes.coalescer.calls", "operation", operation, "result", "executed").increment();
+        try {
+            T result = loader.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, future);
+        }
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+}
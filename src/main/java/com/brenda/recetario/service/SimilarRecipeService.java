@@ -0,0 +1,79 @@
+package com.brenda.recetario.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.exceptions.RecipeNotFoundException;
+import com.brenda.recetario.models.RecipeFilteredResponseDTO;
+import com.brenda.recetario.models.SimilarRecipeDTO;
+import com.brenda.recetario.search.MinHashLshIndex;
+import com.brenda.recetario.search.RecipeIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recipes with a similar set of ingredients. Candidates come from the LSH
+ * buckets in memory, Mongo is only asked for the summaries of the result.
+ */
+@Service
+@Slf4j
+public class SimilarRecipeService implements RecipeIndex {
+    static final int MAX_LIMIT = 20;
+    private static final long SEED = 42L;
+
+    private final RecipeSummaryService recipeSummaryService;
+    private final MinHashLshIndex index;
+    private final double minSimilarity;
+
+    public SimilarRecipeService(RecipeSummaryService recipeSummaryService,
+            @Value("${recipes.similar.bands:16}") int bands,
+            @Value("${recipes.similar.rows:4}") int rows,
+            @Value("${recipes.similar.min-similarity:0.2}") double minSimilarity) {
+        this.recipeSummaryService = recipeSummaryService;
+        this.index = new MinHashLshIndex(bands, rows, SEED);
+        this.minSimilarity = minSimilarity;
+    }
+
+    public List<SimilarRecipeDTO> findSimilar(String id, int limit) {
+        if (!index.contains(id)) {
+            // Recipes without ingredients (or not indexed yet) exist but have nothing to compare
+            if (recipeSummaryService.findSummaries(List.of(id), List.of("id")).isEmpty()) {
+                throw new RecipeNotFoundException("La receta especificada no existe.");
+            }
+            return List.of();
+        }
+
+        List<MinHashLshIndex.Neighbour> neighbours = index.similar(id, Math.min(Math.max(limit, 1), MAX_LIMIT),
+                minSimilarity);
+        Map<String, Recipe> recipes = recipeSummaryService.findSummaries(neighbours.stream()
+                .map(MinHashLshIndex.Neighbour::recipeId)
+                .toList());
+
+        log.info("SimilarRecipeService: {} recetas similares a {}", neighbours.size(), id);
+        return neighbours.stream()
+                .filter(neighbour -> recipes.containsKey(neighbour.recipeId()))
+                .map(neighbour -> new SimilarRecipeDTO(
+                        new RecipeFilteredResponseDTO(recipes.get(neighbour.recipeId())),
+                        neighbour.similarity()))
+                .toList();
+    }
+
+    @Override
+    public void add(Recipe recipe) {
+        index.add(recipe.getId(), recipe.getNormalizedIngredients());
+    }
+
+    @Override
+    public void remove(Recipe recipe) {
+        index.remove(recipe.getId());
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+    }
+}
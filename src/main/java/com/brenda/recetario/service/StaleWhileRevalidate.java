@@ -0,0 +1,118 @@
+package com.brenda.recetario.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.brenda.recetario.events.RecipeCacheFlushEvent;
+import com.brenda.recetario.events.RecipeChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.MongoException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Last known good copy of hot reads. Every read runs against the database
+ * on the caller thread as usual; only when it fails with a database error
+ * (including the driver's own timeouts) is the previous result served
+ * instead. Application errors (not found, invalid data) are never hidden.
+ * Copies are dropped as soon as the recipe they may contain changes.
+ *
+ * Metric: {@code recipes.stale.served} tagged {@code reason=error}.
+ */
+@Slf4j
+@Component
+public class StaleWhileRevalidate {
+    private static final String SEARCH = "search";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Cache<Object, Served<Object>> lastGood;
+
+    /**
+     * A value plus when it was read from the database. {@code stale} marks a
+     * copy served in place of a read that failed.
+     */
+    public record Served<T>(T value, Instant fetchedAt, boolean stale) {
+
+        public long ageSeconds() {
+            return Math.max(0, Duration.between(fetchedAt, Instant.now()).toSeconds());
+        }
+    }
+
+    public StaleWhileRevalidate(MeterRegistry meterRegistry,
+            @Value("${recipes.stale.enabled:true}") boolean enabled,
+            @Value("${recipes.stale.max-age:PT1H}") Duration maxAge,
+            @Value("${recipes.stale.max-entries:2000}") long maxEntries) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.lastGood = Caffeine.newBuilder()
+                .expireAfterWrite(maxAge)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Served<T> get(Object key, Supplier<T> loader) {
+        if (!enabled)
+            return new Served<>(loader.get(), Instant.now(), false);
+
+        T value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            Served<Object> previous = lastGood.getIfPresent(key);
+            if (previous == null || !isDatabaseFailure(e)) {
+                lastGood.invalidate(key);
+                throw e;
+            }
+            log.warn("StaleWhileRevalidate: Error de base de datos, se sirve la copia de hace {} s: {}",
+                    previous.ageSeconds(), key);
+            meterRegistry.counter("recipes.stale.served", "reason", "error").increment();
+            return new Served<>((T) previous.value(), previous.fetchedAt(), true);
+        }
+        Served<T> served = new Served<>(value, Instant.now(), false);
+        lastGood.put(key, (Served<Object>) served);
+        return served;
+    }
+
+    // Any change can alter the recipe itself or which searches return it
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        lastGood.invalidate(detailKey(event.getRecipeId()));
+        lastGood.asMap().keySet().removeIf(StaleWhileRevalidate::isSearchKey);
+    }
+
+    // Changes from other instances were lost, so no copy can be trusted
+    @EventListener
+    public void onCacheFlush(RecipeCacheFlushEvent event) {
+        lastGood.invalidateAll();
+    }
+
+    public static Object detailKey(String recipeId) {
+        return "recipe:" + recipeId;
+    }
+
+    public static Object searchKey(List<String> categories, Boolean fit, String search, int page, int size,
+            Set<String> fields, boolean fuzzy) {
+        return Arrays.asList(SEARCH, categories, fit, search, page, size, fields, fuzzy);
+    }
+
+    private static boolean isSearchKey(Object key) {
+        return key instanceof List<?> parts && !parts.isEmpty() && SEARCH.equals(parts.get(0));
+    }
+
+    private static boolean isDatabaseFailure(Throwable e) {
+        return e instanceof DataAccessException || e instanceof MongoException;
+    }
+}
@@ -0,0 +1,54 @@
+package com.brenda.recetario.utils;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Objects;
+
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    // Lower case, trimmed and without accents ("Azúcar " -> "azucar")
+    public static String normalize(String input) {
+        if (input == null)
+            return "";
+        return removeAccents(input.toLowerCase().trim());
+    }
+
+    public static List<String> normalizeAll(List<String> values) {
+        if (values == null)
+            return List.of();
+        return values.stream()
+                .filter(Objects::nonNull)
+                .map(TextNormalizer::normalize)
+                .filter(s -> !s.isBlank())
+                .toList();
+    }
+
+    public static String removeAccents(String input) {
+        if (input == null)
+            return "";
+        return Normalizer
+                .normalize(input, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", ""); // remove accents
+    }
+
+    // Whole word match: "sal" matches "sal gruesa" but not "salsa"
+    public static boolean containsWord(String text, String word) {
+        if (word.isEmpty())
+            return false;
+        int from = 0;
+        while (true) {
+            int index = text.indexOf(word, from);
+            if (index < 0)
+                return false;
+            int end = index + word.length();
+            boolean startsWord = index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1));
+            boolean endsWord = end == text.length() || !Character.isLetterOrDigit(text.charAt(end));
+            if (startsWord && endsWord)
+                return true;
+            from = index + 1;
+        }
+    }
+}
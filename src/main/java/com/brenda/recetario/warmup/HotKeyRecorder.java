@@ -0,0 +1,126 @@
+package com.brenda.recetario.warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counts which recipes and search pages are requested the most and keeps
+ * the top {@code size} of each in {@code recipes.warmup.hot-keys.path}, so
+ * that the next start can preload them before taking traffic. The file is
+ * rewritten every {@code interval} and on shutdown. Counts read back at
+ * startup are halved, so keys that stop being hot fade out.
+ *
+ * Does nothing unless the path is set.
+ */
+@Slf4j
+@Component
+public class HotKeyRecorder {
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final int size;
+    private final Cache<String, LongAdder> recipes;
+    private final Cache<SearchQuery, LongAdder> searches;
+
+    public record Hit<T>(T key, long hits) {
+    }
+
+    public record HotKeys(List<Hit<String>> recipes, List<Hit<SearchQuery>> searches) {
+
+        public static final HotKeys EMPTY = new HotKeys(List.of(), List.of());
+    }
+
+    public HotKeyRecorder(ObjectMapper objectMapper,
+            @Value("${recipes.warmup.hot-keys.path:}") String path,
+            @Value("${recipes.warmup.hot-keys.size:200}") int size) {
+        this.objectMapper = objectMapper;
+        this.path = path == null || path.isBlank() ? null : Path.of(path);
+        this.size = size;
+        // Room for many more keys than are kept, so a new hot key can climb
+        this.recipes = Caffeine.newBuilder().maximumSize(size * 10L).build();
+        this.searches = Caffeine.newBuilder().maximumSize(size * 10L).build();
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    public void recordRecipe(String recipeId) {
+        if (path != null) {
+            recipes.get(recipeId, key -> new LongAdder()).increment();
+        }
+    }
+
+    public void recordSearch(SearchQuery query) {
+        if (path != null) {
+            searches.get(query, key -> new LongAdder()).increment();
+        }
+    }
+
+    public HotKeys top() {
+        return new HotKeys(top(recipes), top(searches));
+    }
+
+    /**
+     * Reads the list saved by the previous run and seeds the counters with
+     * it. Returns an empty list when there is no file or it cannot be read.
+     */
+    public HotKeys load() {
+        if (path == null || !Files.exists(path))
+            return HotKeys.EMPTY;
+        try {
+            HotKeys hotKeys = objectMapper.readValue(path.toFile(), HotKeys.class);
+            hotKeys.recipes().forEach(hit -> recipes.get(hit.key(), key -> new LongAdder()).add(hit.hits() / 2));
+            hotKeys.searches().forEach(hit -> searches.get(hit.key(), key -> new LongAdder()).add(hit.hits() / 2));
+            return hotKeys;
+        } catch (IOException e) {
+            log.warn("HotKeyRecorder: No se pudo leer la lista de claves calientes {}: {}", path, e.getMessage());
+            return HotKeys.EMPTY;
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${recipes.warmup.hot-keys.interval:PT5M}",
+            initialDelayString = "${recipes.warmup.hot-keys.interval:PT5M}")
+    public void write() {
+        if (path == null)
+            return;
+        HotKeys hotKeys = top();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(tmp.toFile(), hotKeys);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("HotKeyRecorder: {} recetas y {} búsquedas guardadas en {}", hotKeys.recipes().size(),
+                    hotKeys.searches().size(), path);
+        } catch (IOException e) {
+            log.error("HotKeyRecorder: No se pudo guardar la lista de claves calientes en {}", path, e);
+        }
+    }
+
+    private <T> List<Hit<T>> top(Cache<T, LongAdder> counters) {
+        return counters.asMap().entrySet().stream()
+                .map((Map.Entry<T, LongAdder> entry) -> new Hit<>(entry.getKey(), entry.getValue().sum()))
+                .filter(hit -> hit.hits() > 0)
+                .sorted(Comparator.comparingLong((Hit<T> hit) -> hit.hits()).reversed())
+                .limit(size)
+                .toList();
+    }
+}
@@ -0,0 +1,199 @@
+package com.brenda.recetario.warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.brenda.recetario.enums.RecipeCategory;
+import com.brenda.recetario.exceptions.RecipeNotFoundException;
+import com.brenda.recetario.models.RecipeFields;
+import com.brenda.recetario.models.RecipeFilteredResponseDTO;
+import com.brenda.recetario.service.RecipeJsonCache;
+import com.brenda.recetario.service.RecipeService;
+import com.brenda.recetario.service.StaleWhileRevalidate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs before the application reports ready (readiness only switches to
+ * ACCEPTING_TRAFFIC once every ApplicationRunner is done), after the search
+ * indexes are loaded:
+ * <ol>
+ * <li>opens {@code pool-min-size} connections to MongoDB,</li>
+ * <li>runs {@code iterations} synthetic searches and detail reads so the JIT
+ * compiles the hot paths (results are not cached),</li>
+ * <li>loads the recipes and search pages of the hot-key list into the JSON
+ * cache and the last known good copies.</li>
+ * </ol>
+ * The whole warm-up stops at {@code timeout}; failures are logged and never
+ * keep the application from starting.
+ *
+ * Metric: {@code recipes.warmup.duration}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class RecipeWarmUp implements ApplicationRunner {
+    private static final List<String> KEYWORDS = List.of("tomate", "queso", "harina", "pollo", "huevo",
+            "chocolate", "arroz", "limón");
+
+    private final RecipeService recipeService;
+    private final RecipeJsonCache recipeJsonCache;
+    private final StaleWhileRevalidate staleWhileRevalidate;
+    private final HotKeyRecorder hotKeyRecorder;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int iterations;
+    private final int poolMinSize;
+    private final Duration timeout;
+
+    public RecipeWarmUp(RecipeService recipeService, RecipeJsonCache recipeJsonCache,
+            StaleWhileRevalidate staleWhileRevalidate, HotKeyRecorder hotKeyRecorder, MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${recipes.warmup.enabled:true}") boolean enabled,
+            @Value("${recipes.warmup.iterations:200}") int iterations,
+            @Value("${recipes.warmup.pool-min-size:10}") int poolMinSize,
+            @Value("${recipes.warmup.timeout:PT30S}") Duration timeout) {
+        this.recipeService = recipeService;
+        this.recipeJsonCache = recipeJsonCache;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.hotKeyRecorder = hotKeyRecorder;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.poolMinSize = poolMinSize;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled)
+            return;
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+
+        int connections = openPool(deadline);
+        int synthetic = exercise(deadline);
+        int preloaded = preload(hotKeyRecorder.load(), deadline);
+
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.timer("recipes.warmup.duration").record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("RecipeWarmUp: Calentamiento terminado en {} ms ({} conexiones, {} consultas sintéticas, "
+                + "{} claves calientes precargadas)", TimeUnit.NANOSECONDS.toMillis(elapsed), connections,
+                synthetic, preloaded);
+    }
+
+    // Concurrent pings, so each one checks out its own connection
+    int openPool(long deadline) {
+        if (poolMinSize <= 0)
+            return 0;
+        ExecutorService executor = Executors.newFixedThreadPool(poolMinSize);
+        int opened = 0;
+        try {
+            List<Future<?>> pings = new ArrayList<>();
+            for (int i = 0; i < poolMinSize; i++) {
+                pings.add(executor.submit(() -> mongoTemplate.executeCommand("{ ping: 1 }")));
+            }
+            for (Future<?> ping : pings) {
+                ping.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                opened++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("RecipeWarmUp: No se pudieron abrir las conexiones a MongoDB: {}", e.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+        return opened;
+    }
+
+    int exercise(long deadline) {
+        int done = 0;
+        try {
+            for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                SearchQuery query = synthetic(i);
+                Page<RecipeFilteredResponseDTO> page = recipeService.searchRecipes(query.categories(),
+                        query.fit(), query.search(), 0, 10, RecipeFields.parse(null, RecipeFields.SUMMARY),
+                        query.fuzzy());
+                if (!page.isEmpty()) {
+                    objectMapper.writeValueAsBytes(recipeService.getRecipeById(page.getContent().get(0).getId()));
+                }
+                done++;
+            }
+        } catch (Exception e) {
+            log.warn("RecipeWarmUp: Se interrumpieron las consultas sintéticas: {}", e.getMessage());
+        }
+        return done;
+    }
+
+    int preload(HotKeyRecorder.HotKeys hotKeys, long deadline) {
+        int done = 0;
+        for (HotKeyRecorder.Hit<String> hit : hotKeys.recipes()) {
+            if (System.nanoTime() >= deadline)
+                return done;
+            String id = hit.key();
+            if (load(StaleWhileRevalidate.detailKey(id),
+                    () -> recipeJsonCache.get(id, () -> recipeService.getRecipeById(id)))) {
+                done++;
+            }
+        }
+        for (HotKeyRecorder.Hit<SearchQuery> hit : hotKeys.searches()) {
+            if (System.nanoTime() >= deadline)
+                return done;
+            SearchQuery query = hit.key();
+            Set<String> selected = RecipeFields.parse(query.fields(), RecipeFields.SUMMARY);
+            if (load(StaleWhileRevalidate.searchKey(query.categories(), query.fit(), query.search(), query.page(),
+                    query.size(), selected, query.fuzzy()),
+                    () -> recipeService.searchRecipes(query.categories(), query.fit(), query.search(),
+                            query.page(), query.size(), selected, query.fuzzy()))) {
+                done++;
+            }
+        }
+        return done;
+    }
+
+    // Same keys and loaders as the controller, so the first real request finds them
+    private boolean load(Object key, Supplier<?> loader) {
+        try {
+            staleWhileRevalidate.get(key, loader);
+            return true;
+        } catch (RecipeNotFoundException e) {
+            // Deleted since the list was saved
+            return false;
+        } catch (Exception e) {
+            log.warn("RecipeWarmUp: No se pudo precargar {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    // Cycles through categories, fit values, keywords and fuzzy matching
+    static SearchQuery synthetic(int i) {
+        RecipeCategory[] categories = RecipeCategory.values();
+        List<String> category = i % 3 == 0 ? null : List.of(categories[i % categories.length].name());
+        Boolean fit = i % 4 == 0 ? null : i % 2 == 0;
+        String search = i % 2 == 0 ? null : KEYWORDS.get(i % KEYWORDS.size());
+        return new SearchQuery(category, fit, search, 0, 10, null, i % 5 == 0);
+    }
+}
@@ -0,0 +1,14 @@
+package com.brenda.recetario.warmup;
+
+import java.util.List;
+
+// Parameters of a GET /recipes/search request, as recorded in the hot-key list
+public record SearchQuery(
+        List<String> categories,
+        Boolean fit,
+        String search,
+        int page,
+        int size,
+        List<String> fields,
+        boolean fuzzy) {
+}
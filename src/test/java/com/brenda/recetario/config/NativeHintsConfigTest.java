@@ -0,0 +1,47 @@
+package com.brenda.recetario.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.enums.RecipeCategory;
+import com.brenda.recetario.models.RecipeCreateDTO;
+import com.brenda.recetario.models.RecipeResponseDTO;
+
+class NativeHintsConfigTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeHintsConfig.RecipeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void givenHints_whenRegistered_thenDtosBoundForJson() throws NoSuchMethodException {
+        assertThat(RuntimeHintsPredicates.reflection().onType(RecipeCreateDTO.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(RecipeResponseDTO.class.getMethod("getTitle")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(RecipeCategory.class)).accepts(hints);
+    }
+
+    @Test
+    void givenHints_whenRegistered_thenRecipeFieldsReflective() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(Recipe.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+    }
+
+    @Test
+    void givenHints_whenRegistered_thenCloudinaryStrategiesInstantiable() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("com.cloudinary.http44.UploaderStrategy"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+    }
+}
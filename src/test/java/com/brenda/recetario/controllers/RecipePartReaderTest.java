@@ -0,0 +1,66 @@
+package com.brenda.recetario.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockPart;
+
+import com.brenda.recetario.enums.RecipeCategory;
+import com.brenda.recetario.exceptions.InvalidDataException;
+import com.brenda.recetario.models.RecipeCreateDTO;
+import com.brenda.recetario.models.RecipeUpdateDTO;
+import com.brenda.recetario.utils.RecipeTestDataFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+
+class RecipePartReaderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RecipePartReader reader = new RecipePartReader(objectMapper,
+            Validation.buildDefaultValidatorFactory().getValidator());
+
+    @Test
+    void givenValidJson_whenReadCreate_thenBindsDto() throws Exception {
+        RecipeCreateDTO sent = RecipeTestDataFactory.createValidRecipeCreateDTO();
+
+        RecipeCreateDTO dto = reader.readCreate(part(objectMapper.writeValueAsString(sent)));
+
+        assertThat(dto.getTitle()).isEqualTo("Pizza");
+        assertThat(dto.getCategories()).containsExactly(RecipeCategory.CENA);
+        assertThat(dto.getIngredients()).containsExactly("Harina", "Queso", "Tomate");
+        assertThat(reader.validate(dto)).isEmpty();
+    }
+
+    @Test
+    void givenUtf8Json_whenReadUpdate_thenKeepsAccents() throws Exception {
+        RecipeUpdateDTO dto = reader.readUpdate(part("{\"id\":\"1\",\"title\":\"Budín de limón\"}"));
+
+        assertThat(dto.getTitle()).isEqualTo("Budín de limón");
+    }
+
+    @Test
+    void givenMalformedJson_whenRead_thenThrowInvalidData() {
+        assertThrows(InvalidDataException.class, () -> reader.readCreate(part("{\"title\": \"Pizza\",")));
+        assertThrows(InvalidDataException.class, () -> reader.readCreate(part("{\"fit\": \"quizás\"}")));
+        assertThrows(InvalidDataException.class, () -> reader.readCreate(part("")));
+    }
+
+    @Test
+    void givenInvalidDto_whenValidate_thenReturnsErrorsByField() {
+        RecipeCreateDTO dto = RecipeTestDataFactory.createRecipeCreateDTOWithTitle("");
+        dto.setIngredients(List.of());
+
+        Map<String, String> errors = reader.validate(dto);
+
+        assertThat(errors).containsKeys("title", "ingredients");
+    }
+
+    private static MockPart part(String json) {
+        return new MockPart("recipe", json.getBytes(StandardCharsets.UTF_8));
+    }
+}
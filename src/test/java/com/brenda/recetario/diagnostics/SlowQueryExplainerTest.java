@@ -0,0 +1,46 @@
+package com.brenda.recetario.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+class SlowQueryExplainerTest {
+
+    @Test
+    void parse_shouldReadWinningPlanAndCountsOfAFind() {
+        Document explain = Document.parse("""
+                { queryPlanner: { winningPlan: { stage: "FETCH", inputStage: { stage: "IXSCAN" } } },
+                  executionStats: { nReturned: 3, totalDocsExamined: 3, totalKeysExamined: 4 } }""");
+
+        SlowQueryRecorder.Plan plan = SlowQueryExplainer.parse(explain);
+
+        assertThat(plan.winningPlan()).isEqualTo("FETCH > IXSCAN");
+        assertThat(plan.collectionScan()).isFalse();
+        assertThat(plan.docsExamined()).isEqualTo(3);
+        assertThat(plan.keysExamined()).isEqualTo(4);
+    }
+
+    @Test
+    void parse_shouldFindTheCursorStageOfAnAggregate() {
+        Document explain = Document.parse("""
+                { stages: [ { $cursor: {
+                    queryPlanner: { winningPlan: { queryPlan: { stage: "COLLSCAN" } } },
+                    executionStats: { totalDocsExamined: 5000, totalKeysExamined: 0 } } },
+                  { $facet: {} } ] }""");
+
+        SlowQueryRecorder.Plan plan = SlowQueryExplainer.parse(explain);
+
+        assertThat(plan.collectionScan()).isTrue();
+        assertThat(plan.docsExamined()).isEqualTo(5000);
+    }
+
+    @Test
+    void explainable_shouldDropSessionFields() {
+        BsonDocument command = BsonDocument.parse(
+                "{ find: 'recipes', filter: {}, $db: 'recetario', lsid: { id: 1 }, $clusterTime: {} }");
+
+        assertThat(SlowQueryExplainer.explainable(command).keySet()).containsExactly("find", "filter");
+    }
+}
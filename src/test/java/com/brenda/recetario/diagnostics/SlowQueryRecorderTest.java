@@ -0,0 +1,75 @@
+package com.brenda.recetario.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import com.brenda.recetario.models.SlowQueryDTO;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+class SlowQueryRecorderTest {
+    private final SlowQueryRecorder recorder = new SlowQueryRecorder("recipes", Duration.ofMillis(100));
+
+    @Test
+    void shape_shouldKeepFieldsAndOperatorsButNotValues() {
+        BsonDocument tomato = BsonDocument.parse("""
+                { find: "recipes", filter: { categories: { $in: ["DESAYUNO", "ALMUERZO"] }, fit: true,
+                  $and: [ { normalizedTitle: { $regex: "tomate" } } ] }, skip: 0, limit: 10 }""");
+        BsonDocument onion = BsonDocument.parse("""
+                { find: "recipes", filter: { categories: { $in: ["CENA"] }, fit: false,
+                  $and: [ { normalizedTitle: { $regex: "cebolla" } } ] }, skip: 20, limit: 10 }""");
+
+        String shape = QueryShape.of("find", tomato);
+
+        assertThat(shape).isEqualTo(QueryShape.of("find", onion));
+        assertThat(shape).contains("\"categories\": {\"$in\": [\"?\"]}").doesNotContain("tomate");
+    }
+
+    @Test
+    void report_shouldOnlyCountQueriesOverTheThresholdSlowestFirst() {
+        BsonDocument byFit = BsonDocument.parse("{ find: 'recipes', filter: { fit: true } }");
+        BsonDocument byTitle = BsonDocument.parse("{ find: 'recipes', filter: { normalizedTitle: 'x' } }");
+
+        recorder.record("find", byFit, TimeUnit.MILLISECONDS.toNanos(150));
+        recorder.record("find", byFit, TimeUnit.MILLISECONDS.toNanos(250));
+        recorder.record("find", byTitle, TimeUnit.MILLISECONDS.toNanos(900));
+        recorder.record("find", byTitle, TimeUnit.MILLISECONDS.toNanos(5));
+
+        List<SlowQueryDTO> report = recorder.report(10);
+
+        assertThat(report).extracting(SlowQueryDTO::getShape)
+                .containsExactly(QueryShape.of("find", byTitle), QueryShape.of("find", byFit));
+        assertThat(report.get(1).getCount()).isEqualTo(2);
+        assertThat(report.get(1).getAvgMs()).isEqualTo(200);
+        assertThat(report.get(1).getMaxMs()).isEqualTo(250);
+        assertThat(recorder.explainCandidates(1, Duration.ofHours(1))).singleElement()
+                .satisfies(stats -> assertThat(stats.sample()).isEqualTo(byTitle));
+    }
+
+    @Test
+    void listener_shouldKeepOnlyTheQueryPartOfSlowCommands() {
+        BsonDocument command = BsonDocument.parse("""
+                { find: "recipes", filter: { fit: true }, limit: 10, $db: "recetario",
+                  lsid: { id: "sesión" }, $clusterTime: { clusterTime: 1 } }""");
+        ConnectionDescription connection = new ConnectionDescription(new ServerId(new ClusterId(),
+                new ServerAddress()));
+
+        recorder.commandStarted(new CommandStartedEvent(null, 1, 7, connection, "recetario", "find", command));
+        recorder.commandSucceeded(new CommandSucceededEvent(null, 1, 7, connection, "recetario", "find",
+                new BsonDocument(), TimeUnit.MILLISECONDS.toNanos(300)));
+
+        assertThat(recorder.explainCandidates(1, Duration.ofHours(1))).singleElement()
+                .satisfies(stats -> assertThat(stats.sample())
+                        .isEqualTo(BsonDocument.parse("{ find: 'recipes', filter: { fit: true }, limit: 10 }")));
+    }
+}
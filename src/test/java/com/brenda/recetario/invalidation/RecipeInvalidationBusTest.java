@@ -0,0 +1,107 @@
+package com.brenda.recetario.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.events.RecipeCacheFlushEvent;
+import com.brenda.recetario.events.RecipeChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecipeInvalidationBusTest {
+    private static final Duration GAP_TIMEOUT = Duration.ofMillis(50);
+
+    private final InMemoryRecipeChangeTransport transport = new InMemoryRecipeChangeTransport();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final ApplicationEventPublisher nodeA = mock(ApplicationEventPublisher.class);
+    private final ApplicationEventPublisher nodeB = mock(ApplicationEventPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RecipeInvalidationBus busA;
+    private RecipeInvalidationBus busB;
+
+    @BeforeEach
+    void setUp() {
+        busA = new RecipeInvalidationBus(transport, mongoTemplate, nodeA, meterRegistry, GAP_TIMEOUT);
+        busB = new RecipeInvalidationBus(transport, mongoTemplate, nodeB, meterRegistry, GAP_TIMEOUT);
+        busA.start();
+        busB.start();
+    }
+
+    @Test
+    void localWrite_shouldBeReplayedOnTheOtherNodeWithTheStoredState() {
+        Recipe stored = new Recipe();
+        stored.setId("1");
+        when(mongoTemplate.findById("1", Recipe.class)).thenReturn(stored);
+
+        busA.onRecipeChanged(new RecipeChangedEvent("1", stored));
+
+        verify(nodeB).publishEvent(argThat((Object e) -> e instanceof RecipeChangedEvent changed
+                && changed.isRemote() && changed.getRecipe() == stored));
+        verify(nodeA, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void delete_shouldNotReadTheDatabase() {
+        busA.onRecipeChanged(new RecipeChangedEvent("1", null));
+
+        verify(nodeB).publishEvent(argThat((Object e) -> e instanceof RecipeChangedEvent changed
+                && changed.isRemote() && changed.isDeleted()));
+        verify(mongoTemplate, never()).findById(any(), any());
+    }
+
+    @Test
+    void remoteEvent_shouldNotBePublishedAgain() {
+        busB.onRecipeChanged(new RecipeChangedEvent("1", null, true));
+
+        assertThat(transport.lastSequence()).isZero();
+    }
+
+    @Test
+    void outOfOrderChanges_shouldBeAppliedInOrderWithoutFlushing() {
+        busA.onRecipeChanged(new RecipeChangedEvent("1", null));
+        busB.apply(new RecipeChange(3, "3", true, busA.nodeId()));
+        busB.apply(new RecipeChange(2, "2", true, busA.nodeId()));
+        busB.checkGaps();
+
+        InOrder inOrder = inOrder(nodeB);
+        inOrder.verify(nodeB).publishEvent(argThat((Object e) -> e instanceof RecipeChangedEvent changed
+                && changed.getRecipeId().equals("2")));
+        inOrder.verify(nodeB).publishEvent(argThat((Object e) -> e instanceof RecipeChangedEvent changed
+                && changed.getRecipeId().equals("3")));
+        verify(nodeB, never()).publishEvent(argThat((Object e) -> e instanceof RecipeCacheFlushEvent));
+    }
+
+    @Test
+    void sequenceGap_shouldFlushTheCachesOnlyAfterTheTimeout() throws InterruptedException {
+        busA.onRecipeChanged(new RecipeChangedEvent("1", null));
+        busB.apply(new RecipeChange(5, "5", true, busA.nodeId()));
+
+        busB.checkGaps();
+        verify(nodeB, never()).publishEvent(argThat((Object e) -> e instanceof RecipeCacheFlushEvent));
+
+        Thread.sleep(GAP_TIMEOUT.toMillis() * 2);
+        busB.checkGaps();
+
+        verify(nodeB).publishEvent(argThat((Object e) -> e instanceof RecipeCacheFlushEvent));
+        verify(nodeB).publishEvent(argThat((Object e) -> e instanceof RecipeChangedEvent changed
+                && changed.getRecipeId().equals("5")));
+        verify(nodeA, never()).publishEvent(argThat((Object e) -> e instanceof RecipeCacheFlushEvent));
+        assertThat(meterRegistry.counter("recipes.invalidation.flushes").count()).isEqualTo(1);
+    }
+}
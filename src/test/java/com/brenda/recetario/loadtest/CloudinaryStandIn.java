@@ -0,0 +1,91 @@
+package com.brenda.recetario.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local replacement for the Cloudinary API, so that creates with images can
+ * be measured without uploading to the real account. The app reaches it
+ * through {@code cloudinary.upload-prefix} (profile {@code loadtest}).
+ * Uploads, destroys and bulk deletes all succeed after {@code latency},
+ * roughly what a real upload of a small image costs.
+ */
+public class CloudinaryStandIn implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private final AtomicLong uploads = new AtomicLong();
+
+    private CloudinaryStandIn(int port, Duration latency) throws IOException {
+        this.latencyMillis = latency.toMillis();
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "cloudinary-stand-in");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public static CloudinaryStandIn start(int port, Duration latency) throws IOException {
+        return new CloudinaryStandIn(port, latency);
+    }
+
+    public long uploads() {
+        return uploads.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        sleep();
+
+        String path = exchange.getRequestURI().getPath();
+        String response;
+        if (path.endsWith("/upload")) {
+            long id = uploads.incrementAndGet();
+            response = "{\"public_id\":\"loadtest/" + id + "\",\"version\":1,\"format\":\"png\","
+                    + "\"secure_url\":\"https://res.cloudinary.com/loadtest/image/upload/v1/loadtest/" + id + ".png\"}";
+        } else if (path.endsWith("/destroy")) {
+            response = "{\"result\":\"ok\"}";
+        } else {
+            response = "{\"deleted\":{}}";
+        }
+
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void sleep() {
+        if (latencyMillis <= 0)
+            return;
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
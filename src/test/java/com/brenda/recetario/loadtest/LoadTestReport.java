@@ -0,0 +1,116 @@
+package com.brenda.recetario.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes the results of a run to {@code output}: {@code summary.json} with
+ * counts and percentiles per scenario (milliseconds), and one {@code .hgrm}
+ * percentile distribution per scenario and histogram, which HdrHistogram's
+ * plotter reads as is.
+ */
+public class LoadTestReport {
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadTestSettings settings;
+    private final Map<Scenario, ScenarioStats> stats;
+    private final Histogram allResponseTimes = new Histogram(3);
+    private final Histogram allServiceTimes = new Histogram(3);
+    private long errors;
+    private long dropped;
+
+    public LoadTestReport(LoadTestSettings settings, Map<Scenario, ScenarioStats> stats) {
+        this.settings = settings;
+        this.stats = stats;
+        stats.values().forEach(scenario -> {
+            allResponseTimes.add(scenario.responseTime());
+            allServiceTimes.add(scenario.serviceTime());
+            errors += scenario.errors();
+            dropped += scenario.dropped();
+        });
+    }
+
+    public long count() {
+        return allResponseTimes.getTotalCount();
+    }
+
+    /** Failed and dropped requests over all that were due. */
+    public double errorRate() {
+        long due = count() + dropped;
+        return due == 0 ? 0 : (double) (errors + dropped) / due;
+    }
+
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("finishedAt", Instant.now().toString());
+        summary.put("baseUrl", settings.baseUrl());
+        summary.put("arrivals", settings.poisson() ? "poisson" : "uniform");
+        summary.put("targetRate", settings.rate());
+        summary.put("achievedRate", count() / (double) settings.duration().toSeconds());
+        summary.put("durationSeconds", settings.duration().toSeconds());
+        summary.put("warmupSeconds", settings.warmup().toSeconds());
+
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        stats.forEach((scenario, scenarioStats) -> scenarios.put(scenario.key(),
+                entry(scenarioStats.responseTime(), scenarioStats.serviceTime(), scenarioStats.errors(),
+                        scenarioStats.dropped())));
+        summary.put("scenarios", scenarios);
+        summary.put("all", entry(allResponseTimes, allServiceTimes, errors, dropped));
+        return summary;
+    }
+
+    public void write() throws IOException {
+        Path output = settings.output();
+        Files.createDirectories(output);
+        new ObjectMapper().writerWithDefaultPrettyPrinter()
+                .writeValue(output.resolve("summary.json").toFile(), summary());
+
+        for (Map.Entry<Scenario, ScenarioStats> entry : stats.entrySet()) {
+            hgrm(output.resolve(entry.getKey().key() + ".hgrm"), entry.getValue().responseTime());
+            hgrm(output.resolve(entry.getKey().key() + "-service.hgrm"), entry.getValue().serviceTime());
+        }
+        hgrm(output.resolve("all.hgrm"), allResponseTimes);
+        hgrm(output.resolve("all-service.hgrm"), allServiceTimes);
+    }
+
+    private static Map<String, Object> entry(Histogram responseTime, Histogram serviceTime, long errors,
+            long dropped) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("count", responseTime.getTotalCount());
+        entry.put("errors", errors);
+        entry.put("dropped", dropped);
+        entry.put("responseTimeMs", percentiles(responseTime));
+        entry.put("serviceTimeMs", percentiles(serviceTime));
+        return entry;
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        percentiles.put("mean", histogram.getMean() / MICROS_PER_MILLI);
+        percentiles.put("p50", millis(histogram, 50));
+        percentiles.put("p90", millis(histogram, 90));
+        percentiles.put("p99", millis(histogram, 99));
+        percentiles.put("p99.9", millis(histogram, 99.9));
+        percentiles.put("max", histogram.getMaxValue() / MICROS_PER_MILLI);
+        return percentiles;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static void hgrm(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+}
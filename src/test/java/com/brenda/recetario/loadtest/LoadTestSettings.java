@@ -0,0 +1,95 @@
+package com.brenda.recetario.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Load test parameters, read from {@code loadtest.*} system properties
+ * (for example {@code mvn test -Ploadtest -Dloadtest.rate=200}).
+ *
+ * @param rate        target arrivals per second, independent of how fast the
+ *                    server answers (open model)
+ * @param arrivals    {@code poisson} (exponential gaps) or {@code uniform}
+ * @param mix         relative weight of each scenario, e.g.
+ *                    {@code get=60,search=25,filter=10,create=5}
+ * @param maxInFlight requests still open past this count are not sent and
+ *                    count as dropped, so an overloaded server cannot exhaust
+ *                    the generator
+ */
+public record LoadTestSettings(
+        String baseUrl,
+        double rate,
+        Duration duration,
+        Duration warmup,
+        boolean poisson,
+        Map<Scenario, Integer> mix,
+        int seedRecipes,
+        int maxInFlight,
+        Duration timeout,
+        int cloudinaryPort,
+        Duration cloudinaryLatency,
+        double maxErrorRate,
+        long randomSeed,
+        Path output) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                property("base-url", "http://localhost:8080"),
+                Double.parseDouble(property("rate", "50")),
+                DurationStyle.detectAndParse(property("duration", "60s")),
+                DurationStyle.detectAndParse(property("warmup", "10s")),
+                !"uniform".equalsIgnoreCase(property("arrivals", "poisson")),
+                parseMix(property("mix", "get=60,search=25,filter=10,create=5")),
+                Integer.parseInt(property("seed-recipes", "50")),
+                Integer.parseInt(property("max-in-flight", "1000")),
+                DurationStyle.detectAndParse(property("timeout", "10s")),
+                Integer.parseInt(property("cloudinary-port", "9099")),
+                DurationStyle.detectAndParse(property("cloudinary-latency", "50ms")),
+                Double.parseDouble(property("max-error-rate", "0.01")),
+                Long.parseLong(property("random-seed", "42")),
+                Path.of(property("output", "target/loadtest")));
+    }
+
+    static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Mezcla inválida: " + mix);
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Scenario.fromKey(parts[0]), weight);
+            }
+        }
+        if (weights.isEmpty())
+            throw new IllegalArgumentException("La mezcla no tiene escenarios: " + mix);
+        return weights;
+    }
+
+    /** Picks a scenario with probability proportional to its weight. */
+    public Scenario pick(Random random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<Scenario, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0)
+                return entry.getKey();
+        }
+        throw new IllegalStateException();
+    }
+
+    /** Nanoseconds until the next arrival. */
+    public long nextIntervalNanos(Random random) {
+        double mean = 1_000_000_000d / rate;
+        return poisson ? (long) (-Math.log(1 - random.nextDouble()) * mean) : (long) mean;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+}
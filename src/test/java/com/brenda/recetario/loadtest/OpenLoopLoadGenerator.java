@@ -0,0 +1,88 @@
+package com.brenda.recetario.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests are due at a fixed schedule of arrivals
+ * ({@code rate} per second, Poisson or uniform gaps) whether or not earlier
+ * ones have been answered, the way independent users arrive. Each request's
+ * latency is measured from its due time, so a stall on the server shows up
+ * in every request that should have been sent during it. Requests due
+ * during the warm-up are sent but not recorded.
+ */
+public class OpenLoopLoadGenerator {
+    private final LoadTestSettings settings;
+    private final HttpClient client;
+    private final RecipeRequests requests;
+    private final Random random;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public OpenLoopLoadGenerator(LoadTestSettings settings, HttpClient client, RecipeRequests requests,
+            Random random) {
+        this.settings = settings;
+        this.client = client;
+        this.requests = requests;
+        this.random = random;
+    }
+
+    public Map<Scenario, ScenarioStats> run() throws InterruptedException {
+        Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+        settings.mix().keySet().forEach(scenario -> stats.put(scenario, new ScenarioStats()));
+
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+
+        for (long due = start; due < end; due += settings.nextIntervalNanos(random)) {
+            waitUntil(due);
+            Scenario scenario = settings.pick(random);
+            ScenarioStats scenarioStats = due >= measureFrom ? stats.get(scenario) : null;
+
+            if (inFlight.get() >= settings.maxInFlight()) {
+                if (scenarioStats != null) {
+                    scenarioStats.drop();
+                }
+                continue;
+            }
+            send(requests.build(scenario), due, scenarioStats);
+        }
+
+        awaitInFlight();
+        return stats;
+    }
+
+    private void send(HttpRequest request, long due, ScenarioStats stats) {
+        long sent = System.nanoTime();
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long done = System.nanoTime();
+                    inFlight.decrementAndGet();
+                    if (stats != null) {
+                        stats.record(due, sent, done, error == null && response.statusCode() < 400);
+                    }
+                });
+    }
+
+    private static void waitUntil(long due) {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + settings.timeout().toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.brenda.recetario.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives a running instance of the app over HTTP. Not part of the regular
+ * build: start the app with the {@code loadtest} profile (local MongoDB,
+ * Cloudinary stand-in, no rate limit) and run {@code mvn test -Ploadtest}.
+ * Settings in {@link LoadTestSettings}; results in {@code target/loadtest}.
+ */
+@Tag("loadtest")
+class RecipeLoadTest {
+    private static final Logger log = LoggerFactory.getLogger(RecipeLoadTest.class);
+
+    @Test
+    void openLoopScenarioMix() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        Random random = new Random(settings.randomSeed());
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+
+        CloudinaryStandIn cloudinary = settings.cloudinaryPort() > 0
+                ? CloudinaryStandIn.start(settings.cloudinaryPort(), settings.cloudinaryLatency())
+                : null;
+        try {
+            RecipeRequests requests = new RecipeRequests(settings.baseUrl(), settings.timeout(), random);
+            requests.seed(client, settings.seedRecipes());
+            log.info("Carga: {} recetas creadas, {} req/s durante {} (+{} de calentamiento)",
+                    settings.seedRecipes(), settings.rate(), settings.duration(), settings.warmup());
+
+            Map<Scenario, ScenarioStats> stats = new OpenLoopLoadGenerator(settings, client, requests, random).run();
+            LoadTestReport report = new LoadTestReport(settings, stats);
+            report.write();
+            stats.forEach((scenario, scenarioStats) -> log.info("{}: {} solicitudes, p50 {} ms, p99 {} ms, máx {} ms",
+                    scenario.key(), scenarioStats.count(),
+                    scenarioStats.responseTime().getValueAtPercentile(50) / 1000.0,
+                    scenarioStats.responseTime().getValueAtPercentile(99) / 1000.0,
+                    scenarioStats.responseTime().getMaxValue() / 1000.0));
+            log.info("Carga: Resultados en {}", settings.output().toAbsolutePath());
+
+            assertThat(report.count()).isPositive();
+            assertThat(report.errorRate()).isLessThanOrEqualTo(settings.maxErrorRate());
+        } finally {
+            if (cloudinary != null) {
+                cloudinary.close();
+            }
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.brenda.recetario.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import com.brenda.recetario.enums.RecipeCategory;
+import com.brenda.recetario.models.RecipeCreateDTO;
+import com.brenda.recetario.utils.RecipeTestDataFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Builds the HTTP requests of each scenario against {@code /recipes}. Only
+ * the load generator thread calls {@link #build}, so the shared Random keeps
+ * a run reproducible for a given seed.
+ */
+public class RecipeRequests {
+    private static final List<String> KEYWORDS = List.of("tomate", "queso", "harina", "pollo", "arroz",
+            "huevo", "chocolate", "limón", "cebolla", "ajo", "avena", "banana", "leche", "papa");
+    private static final RecipeCategory[] CATEGORIES = RecipeCategory.values();
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' };
+
+    private final String baseUrl;
+    private final Duration timeout;
+    private final Random random;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> ids = new ArrayList<>();
+    private long created;
+
+    public RecipeRequests(String baseUrl, Duration timeout, Random random) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.random = random;
+    }
+
+    /**
+     * Creates {@code count} recipes, one at a time, so that get-by-id has
+     * real ids to ask for and searches find something.
+     */
+    public void seed(HttpClient client, int count) throws IOException, InterruptedException {
+        for (int i = 0; i < count; i++) {
+            HttpResponse<String> response = client.send(build(Scenario.CREATE), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201)
+                throw new IllegalStateException("No se pudo crear la receta de prueba: " + response.statusCode()
+                        + " " + response.body());
+            ids.add(objectMapper.readTree(response.body()).get("id").asText());
+        }
+    }
+
+    public HttpRequest build(Scenario scenario) {
+        return switch (scenario) {
+            case GET_BY_ID -> get("/recipes/" + randomId());
+            case SEARCH -> get("/recipes/search?" + searchQuery());
+            case FILTER -> get("/recipes/search?" + filterQuery());
+            case CREATE -> create();
+        };
+    }
+
+    private String randomId() {
+        // Without seeded recipes this measures the 404 path
+        return ids.isEmpty() ? UUID.randomUUID().toString() : ids.get(random.nextInt(ids.size()));
+    }
+
+    // 0 to 3 keywords, first pages only
+    private String searchQuery() {
+        List<String> words = pickKeywords(random.nextInt(4));
+        StringJoiner query = new StringJoiner("&");
+        if (!words.isEmpty()) {
+            query.add("search=" + encode(String.join(" ", words)));
+        }
+        query.add("page=" + random.nextInt(3));
+        query.add("size=10");
+        return query.toString();
+    }
+
+    private String filterQuery() {
+        StringJoiner query = new StringJoiner("&");
+        int categories = 1 + random.nextInt(2);
+        for (int i = 0; i < categories; i++) {
+            query.add("categories=" + CATEGORIES[random.nextInt(CATEGORIES.length)].name());
+        }
+        if (random.nextBoolean()) {
+            query.add("fit=" + random.nextBoolean());
+        }
+        query.add("size=10");
+        return query.toString();
+    }
+
+    private HttpRequest create() {
+        RecipeCreateDTO dto = RecipeTestDataFactory.createRecipeCreateDTOWithTitle("Receta de carga " + (++created));
+        dto.setCategories(List.of(CATEGORIES[random.nextInt(CATEGORIES.length)]));
+        dto.setIngredients(pickKeywords(2 + random.nextInt(4)));
+        dto.setFit(random.nextBoolean());
+
+        String boundary = "loadtest-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            part(body, boundary, "recipe", null, "application/json", objectMapper.writeValueAsBytes(dto));
+            part(body, boundary, "image", "receta.png", "image/png", randomImage());
+            body.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/recipes"))
+                .timeout(timeout)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+    }
+
+    private List<String> pickKeywords(int count) {
+        List<String> shuffled = new ArrayList<>(KEYWORDS);
+        Collections.shuffle(shuffled, random);
+        return shuffled.subList(0, count);
+    }
+
+    // Unique content every time, so the image dedup does not turn uploads into lookups
+    private byte[] randomImage() {
+        byte[] image = new byte[2048 + random.nextInt(6144)];
+        random.nextBytes(image);
+        System.arraycopy(PNG_SIGNATURE, 0, image, 0, PNG_SIGNATURE.length);
+        return image;
+    }
+
+    private static void part(ByteArrayOutputStream body, String boundary, String name, String filename,
+            String contentType, byte[] content) throws IOException {
+        String header = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\""
+                + (filename != null ? "; filename=\"" + filename + "\"" : "") + "\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n";
+        body.write(header.getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,27 @@
+package com.brenda.recetario.loadtest;
+
+import java.util.Arrays;
+
+public enum Scenario {
+    GET_BY_ID("get"),
+    SEARCH("search"),
+    FILTER("filter"),
+    CREATE("create");
+
+    private final String key;
+
+    Scenario(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Scenario fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.key.equalsIgnoreCase(key.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Escenario desconocido: " + key));
+    }
+}
@@ -0,0 +1,59 @@
+package com.brenda.recetario.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies of one scenario, in microseconds. {@code responseTime} is
+ * measured from when the request was due to be sent, so time spent queued
+ * behind a slow server is counted (coordinated omission corrected);
+ * {@code serviceTime} from when it was actually sent, which is what a
+ * closed-loop tool would report.
+ */
+public class ScenarioStats {
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public void record(long intendedNanos, long sentNanos, long doneNanos, boolean ok) {
+        responseTime.recordValue(micros(doneNanos - intendedNanos));
+        serviceTime.recordValue(micros(doneNanos - sentNanos));
+        if (!ok) {
+            errors.incrementAndGet();
+        }
+    }
+
+    public void drop() {
+        dropped.incrementAndGet();
+    }
+
+    public Histogram responseTime() {
+        return responseTime;
+    }
+
+    public Histogram serviceTime() {
+        return serviceTime;
+    }
+
+    public long count() {
+        return responseTime.getTotalCount();
+    }
+
+    public long errors() {
+        return errors.get();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(HIGHEST_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
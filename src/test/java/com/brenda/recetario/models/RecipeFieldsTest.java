@@ -0,0 +1,61 @@
+package com.brenda.recetario.models;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import com.brenda.recetario.exceptions.InvalidDataException;
+import com.brenda.recetario.utils.RecipeTestDataFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecipeFieldsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setFilterProvider(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+
+    @Test
+    void whenNoFieldsRequested_thenParseReturnsNull() {
+        assertThat(RecipeFields.parse(null, RecipeFields.DETAIL)).isNull();
+        assertThat(RecipeFields.parse(List.of(), RecipeFields.DETAIL)).isNull();
+    }
+
+    @Test
+    void whenFieldsRequested_thenIdIsAlwaysIncluded() {
+        Set<String> fields = RecipeFields.parse(List.of("title", " imageUrl "), RecipeFields.DETAIL);
+
+        assertThat(fields).containsExactly("id", "title", "imageUrl");
+    }
+
+    @Test
+    void whenUnknownFieldRequested_thenThrowsInvalidDataException() {
+        assertThatThrownBy(() -> RecipeFields.parse(List.of("instructions"), RecipeFields.SUMMARY))
+                .isInstanceOf(InvalidDataException.class);
+    }
+
+    @Test
+    void whenFiltered_thenOnlySelectedFieldsAreSerialized() throws Exception {
+        RecipeResponseDTO dto = new RecipeResponseDTO(RecipeTestDataFactory.createValidRecipeEntity());
+        Set<String> fields = RecipeFields.parse(List.of("title"), RecipeFields.DETAIL);
+
+        MappingJacksonValue value = (MappingJacksonValue) RecipeFields.filter(dto, fields);
+        String json = objectMapper.writer(value.getFilters()).writeValueAsString(value.getValue());
+
+        assertThat(json).contains("\"id\"", "\"title\"").doesNotContain("instructions", "ingredients");
+    }
+
+    @Test
+    void whenNotFiltered_thenAllFieldsAreSerialized() throws Exception {
+        RecipeResponseDTO dto = new RecipeResponseDTO(RecipeTestDataFactory.createValidRecipeEntity());
+
+        String json = objectMapper.writeValueAsString(RecipeFields.filter(dto, null));
+
+        assertThat(json).contains("instructions", "ingredients", "imageUrl");
+    }
+}
@@ -34,7 +34,7 @@ class RecipeUpdateDTOTest {
         assertThat(violations)
                 .anyMatch(v -> v.getPropertyPath().toString().equals("title")
                         && v.getConstraintDescriptor()
-                                .getAnnotation() instanceof jakarta.validation.constraints.NotBlank);
+                                .getAnnotation() instanceof jakarta.validation.constraints.Pattern);
     }
 
     @Test
@@ -48,7 +48,7 @@ class RecipeUpdateDTOTest {
         assertThat(violations)
                 .anyMatch(v -> v.getPropertyPath().toString().equals("categories")
                         && v.getConstraintDescriptor()
-                                .getAnnotation() instanceof jakarta.validation.constraints.NotEmpty);
+                                .getAnnotation() instanceof jakarta.validation.constraints.Size);
     }
 
     @Test
@@ -62,7 +62,7 @@ class RecipeUpdateDTOTest {
         assertThat(violations)
                 .anyMatch(v -> v.getPropertyPath().toString().equals("ingredients")
                         && v.getConstraintDescriptor()
-                                .getAnnotation() instanceof jakarta.validation.constraints.NotEmpty);
+                                .getAnnotation() instanceof jakarta.validation.constraints.Size);
     }
 
     @Test
@@ -76,21 +76,18 @@ class RecipeUpdateDTOTest {
         assertThat(violations)
                 .anyMatch(v -> v.getPropertyPath().toString().equals("instructions")
                         && v.getConstraintDescriptor()
-                                .getAnnotation() instanceof jakarta.validation.constraints.NotBlank);
+                                .getAnnotation() instanceof jakarta.validation.constraints.Pattern);
     }
 
     @Test
-    void whenFitIsNull_thenValidationFails() {
-        RecipeUpdateDTO dto = RecipeTestDataFactory.createValidRecipeUpdateDTO();
-        dto.setFit(null);
+    void whenOnlySomeFieldsArePresent_thenValidationPasses() {
+        RecipeUpdateDTO dto = new RecipeUpdateDTO();
+        dto.setId("1");
+        dto.setFit(false);
 
         Set<ConstraintViolation<RecipeUpdateDTO>> violations = validator.validate(dto);
 
-        assertThat(violations).isNotEmpty();
-        assertThat(violations)
-                .anyMatch(v -> v.getPropertyPath().toString().equals("fit")
-                        && v.getConstraintDescriptor()
-                                .getAnnotation() instanceof jakarta.validation.constraints.NotNull);
+        assertThat(violations).isEmpty(); // missing fields are left untouched
     }
 
     @Test
@@ -0,0 +1,74 @@
+package com.brenda.recetario.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.brenda.recetario.exceptions.TooManyRequestsException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitInterceptor interceptor;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new RateLimitInterceptor(meterRegistry, 5, 5, 2, 2, 1, 1, 1);
+    }
+
+    private MockHttpServletRequest request(String method, String uri, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    @Test
+    void tierOf_classifiesReadsSearchesAndWrites() {
+        assertThat(RateLimitInterceptor.tierOf(request("GET", "/recipes/1", "a"))).isEqualTo(RateLimitTier.READ);
+        assertThat(RateLimitInterceptor.tierOf(request("GET", "/recipes/search/facets", "a")))
+                .isEqualTo(RateLimitTier.SEARCH);
+        assertThat(RateLimitInterceptor.tierOf(request("PATCH", "/recipes", "a"))).isEqualTo(RateLimitTier.WRITE);
+        assertThat(RateLimitInterceptor.tierOf(request("OPTIONS", "/recipes", "a"))).isNull();
+    }
+
+    @Test
+    void preHandle_overBudget_rejectsOnlyThatClientWithRetryAfter() {
+        MockHttpServletRequest first = request("GET", "/recipes/search", "10.0.0.1");
+        assertThat(interceptor.preHandle(first, response, new Object())).isTrue();
+        interceptor.afterCompletion(first, response, new Object(), null);
+
+        MockHttpServletRequest big = request("GET", "/recipes/search", "10.0.0.1");
+        big.setParameter("size", "1000");
+
+        assertThatThrownBy(() -> interceptor.preHandle(big, response, new Object()))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isPositive());
+        assertThat(interceptor.preHandle(request("GET", "/recipes/search", "10.0.0.2"), response, new Object()))
+                .isTrue();
+        assertThat(meterRegistry.counter("recipes.ratelimit.rejected", "tier", "search", "reason", "rate").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void preHandle_tooManyInFlight_shedsLoadUntilReleased() {
+        MockHttpServletRequest running = request("GET", "/recipes/search", "10.0.0.1");
+        interceptor.preHandle(running, response, new Object());
+
+        assertThatThrownBy(() -> interceptor.preHandle(request("GET", "/recipes/search", "10.0.0.2"), response,
+                new Object())).isInstanceOf(TooManyRequestsException.class);
+        assertThat(interceptor.preHandle(request("GET", "/recipes/1", "10.0.0.2"), response, new Object()))
+                .isTrue();
+
+        interceptor.afterCompletion(running, response, new Object(), null);
+
+        assertThat(interceptor.inFlight()).isZero();
+    }
+}
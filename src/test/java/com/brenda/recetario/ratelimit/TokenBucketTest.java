@@ -0,0 +1,41 @@
+package com.brenda.recetario.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryConsume_allowsBurstUpToCapacityThenWaits() {
+        TokenBucket bucket = new TokenBucket(3, 60, 0);
+
+        assertThat(bucket.tryConsume(1, 0)).isZero();
+        assertThat(bucket.tryConsume(1, 0)).isZero();
+        assertThat(bucket.tryConsume(1, 0)).isZero();
+        // 60 per minute: the next token arrives in one second
+        assertThat(bucket.tryConsume(1, 0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void tryConsume_refillsOverTime() {
+        TokenBucket bucket = new TokenBucket(2, 60, 0);
+        bucket.tryConsume(2, 0);
+
+        assertThat(bucket.tryConsume(1, SECOND / 2)).isPositive();
+        assertThat(bucket.tryConsume(1, SECOND)).isZero();
+    }
+
+    @Test
+    void tryConsume_idleTimeDoesNotGrowPastCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 60, 0);
+        long later = 100 * SECOND;
+
+        assertThat(bucket.tryConsume(2, later)).isZero();
+        assertThat(bucket.tryConsume(1, later)).isPositive();
+    }
+}
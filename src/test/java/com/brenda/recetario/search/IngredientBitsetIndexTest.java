@@ -0,0 +1,69 @@
+package com.brenda.recetario.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IngredientBitsetIndexTest {
+
+    private IngredientBitsetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new IngredientBitsetIndex();
+        index.add("tortilla", List.of("huevos", "papas", "sal"));
+        index.add("panqueques", List.of("huevos", "leche", "harina leudante"));
+        index.add("pizza", List.of("harina", "tomate", "queso", "levadura"));
+    }
+
+    @Test
+    void query_onlyPantryIngredients_returnsRecipesFullyCovered() {
+        long[] pantry = index.pantry(List.of("huevos", "papas", "sal", "leche"));
+
+        assertThat(index.query(pantry, 0)).extracting(IngredientBitsetIndex.Match::recipeId)
+                .containsExactly("tortilla");
+    }
+
+    @Test
+    void query_withMissingAllowed_ordersByFewestMissing() {
+        long[] pantry = index.pantry(List.of("huevos", "leche", "harina"));
+
+        List<IngredientBitsetIndex.Match> matches = index.query(pantry, 2);
+
+        assertThat(matches).extracting(IngredientBitsetIndex.Match::recipeId)
+                .containsExactly("panqueques", "tortilla");
+        assertThat(matches.get(1).missing()).isEqualTo(2);
+        assertThat(index.missingIngredients("tortilla", pantry)).containsExactlyInAnyOrder("papas", "sal");
+    }
+
+    @Test
+    void remove_andManyIngredients_keepBitsConsistent() {
+        for (int i = 0; i < 200; i++) {
+            index.add("r" + i, List.of("ingrediente " + i, "sal"));
+        }
+        index.remove("tortilla");
+
+        long[] pantry = index.pantry(List.of("ingrediente 150", "sal"));
+
+        assertThat(index.query(pantry, 0)).extracting(IngredientBitsetIndex.Match::recipeId)
+                .containsExactly("r150");
+        assertThat(index.size()).isEqualTo(202);
+    }
+
+    @Test
+    void removedIngredients_freeTheirIdsForNewOnes() {
+        index.remove("pizza");
+        index.add("ensalada", List.of("lechuga", "tomate cherry", "aceite"));
+
+        long[] pantry = index.pantry(List.of("tomate", "lechuga", "aceite", "queso"));
+
+        assertThat(pantry.length).isEqualTo(1);
+        assertThat(index.query(pantry, 0)).extracting(IngredientBitsetIndex.Match::recipeId)
+                .containsExactly("ensalada");
+        assertThat(index.missingIngredients("panqueques", index.pantry(List.of("harina"))))
+                .containsExactlyInAnyOrder("huevos", "leche");
+    }
+}
@@ -0,0 +1,71 @@
+package com.brenda.recetario.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class IngredientTrieTest {
+
+    @Test
+    void suggest_returnsMostPopularCompletionsFirst() {
+        IngredientTrie trie = new IngredientTrie();
+        trie.add("tomate");
+        trie.add("tomate");
+        trie.add("tomate");
+        trie.add("tomillo");
+        trie.add("tofu");
+        trie.add("tofu");
+        trie.add("harina");
+
+        List<IngredientTrie.Suggestion> suggestions = trie.suggest("to", 10);
+
+        assertThat(suggestions).containsExactly(
+                new IngredientTrie.Suggestion("tomate", 3),
+                new IngredientTrie.Suggestion("tofu", 2),
+                new IngredientTrie.Suggestion("tomillo", 1));
+    }
+
+    @Test
+    void suggest_respectsLimitAndIncludesExactPrefixTerm() {
+        IngredientTrie trie = new IngredientTrie();
+        trie.add("sal");
+        trie.add("salsa de soja");
+        trie.add("salsa de soja");
+        trie.add("salmon");
+
+        assertThat(trie.suggest("sal", 2)).extracting(IngredientTrie.Suggestion::term)
+                .containsExactly("salsa de soja", "sal");
+        assertThat(trie.suggest("sal", 5)).extracting(IngredientTrie.Suggestion::term)
+                .containsExactly("salsa de soja", "sal", "salmon");
+    }
+
+    @Test
+    void remove_updatesCountsAndPrunesUnusedTerms() {
+        IngredientTrie trie = new IngredientTrie();
+        trie.add("queso");
+        trie.add("queso");
+        trie.add("quinoa");
+
+        trie.remove("queso");
+        trie.remove("quinoa");
+
+        assertThat(trie.suggest("qu", 10)).containsExactly(new IngredientTrie.Suggestion("queso", 1));
+        assertThat(trie.size()).isEqualTo(1);
+
+        trie.remove("queso");
+        trie.remove("queso");
+
+        assertThat(trie.suggest("q", 10)).isEmpty();
+        assertThat(trie.size()).isZero();
+    }
+
+    @Test
+    void suggest_unknownPrefix_returnsEmpty() {
+        IngredientTrie trie = new IngredientTrie();
+        trie.add("arroz");
+
+        assertThat(trie.suggest("z", 10)).isEmpty();
+    }
+}
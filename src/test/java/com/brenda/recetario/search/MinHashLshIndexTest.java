@@ -0,0 +1,71 @@
+package com.brenda.recetario.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MinHashLshIndexTest {
+
+    private MinHashLshIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MinHashLshIndex(16, 4, 42L);
+        index.add("tortilla", List.of("huevos", "papas", "sal", "aceite", "cebolla"));
+        index.add("tortilla sin cebolla", List.of("huevos", "papas", "sal", "aceite"));
+        index.add("pizza", List.of("harina", "tomate", "queso", "levadura", "aceite"));
+    }
+
+    @Test
+    void similar_returnsRecipesWithOverlappingIngredients() {
+        List<MinHashLshIndex.Neighbour> neighbours = index.similar("tortilla", 5, 0.2);
+
+        assertThat(neighbours).extracting(MinHashLshIndex.Neighbour::recipeId)
+                .containsExactly("tortilla sin cebolla");
+        // Real Jaccard similarity is 4/5
+        assertThat(neighbours.get(0).similarity()).isBetween(0.6, 1.0);
+    }
+
+    @Test
+    void similar_identicalIngredients_estimatesFullSimilarity() {
+        index.add("tortilla de papas", List.of("cebolla", "aceite", "sal", "papas", "huevos"));
+
+        List<MinHashLshIndex.Neighbour> neighbours = index.similar("tortilla", 5, 0.2);
+
+        assertThat(neighbours.get(0).recipeId()).isEqualTo("tortilla de papas");
+        assertThat(neighbours.get(0).similarity()).isEqualTo(1.0);
+    }
+
+    @Test
+    void remove_dropsRecipeFromBuckets() {
+        index.remove("tortilla sin cebolla");
+
+        assertThat(index.contains("tortilla sin cebolla")).isFalse();
+        assertThat(index.similar("tortilla", 5, 0.2)).isEmpty();
+    }
+
+    @Test
+    void similar_unknownRecipe_returnsEmpty() {
+        assertThat(index.similar("flan", 5, 0.0)).isEmpty();
+    }
+
+    @Test
+    void hash_matchesExactModularArithmetic() {
+        BigInteger prime = BigInteger.ONE.shiftLeft(61).subtract(BigInteger.ONE);
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            long a = 1 + (random.nextLong() >>> 4) % (prime.longValue() - 1);
+            long b = (random.nextLong() >>> 4) % prime.longValue();
+            long x = random.nextLong() >>> 32;
+            long expected = BigInteger.valueOf(a).multiply(BigInteger.valueOf(x)).add(BigInteger.valueOf(b))
+                    .mod(prime).longValue();
+
+            assertThat(MinHashLshIndex.hash(a, x, b)).isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.brenda.recetario.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.brenda.recetario.enums.RecipeCategory;
+
+class RecipeFilterSnapshotTest {
+
+    private RecipeFilterSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new RecipeFilterSnapshot();
+        snapshot.add("c", List.of(RecipeCategory.POSTRE), false);
+        snapshot.add("a", List.of(RecipeCategory.CENA, RecipeCategory.ALMUERZO), true);
+        snapshot.add("b", List.of(RecipeCategory.CENA), false);
+        snapshot.add("d", List.of(RecipeCategory.DESAYUNO), true);
+    }
+
+    @Test
+    void filter_byCategoryAndFit_returnsMatchingIdsInIdOrder() {
+        int cena = RecipeFilterSnapshot.mask(List.of(RecipeCategory.CENA));
+
+        assertThat(snapshot.filter(cena, null, 0, 10).ids()).containsExactly("a", "b");
+        assertThat(snapshot.filter(cena, true, 0, 10).ids()).containsExactly("a");
+        assertThat(snapshot.filter(RecipeFilterSnapshot.ANY_CATEGORY, false, 0, 10).ids())
+                .containsExactly("b", "c");
+    }
+
+    @Test
+    void filter_pagesButCountsEveryMatch() {
+        RecipeFilterSnapshot.Slice slice = snapshot.filter(RecipeFilterSnapshot.ANY_CATEGORY, null, 1, 2);
+
+        assertThat(slice.ids()).containsExactly("b", "c");
+        assertThat(slice.total()).isEqualTo(4);
+    }
+
+    @Test
+    void count_eachFacetIgnoresItsOwnFilter() {
+        int cena = RecipeFilterSnapshot.mask(List.of(RecipeCategory.CENA));
+
+        RecipeFilterSnapshot.Counts counts = snapshot.count(cena, true);
+
+        assertThat(counts.total()).isEqualTo(1);
+        // Categories respect only fit=true: a and d
+        assertThat(counts.categories()[RecipeCategory.CENA.ordinal()]).isEqualTo(1);
+        assertThat(counts.categories()[RecipeCategory.DESAYUNO.ordinal()]).isEqualTo(1);
+        assertThat(counts.categories()[RecipeCategory.POSTRE.ordinal()]).isZero();
+        // Fit respects only CENA: a and b
+        assertThat(counts.fit()).isEqualTo(1);
+        assertThat(counts.nonFit()).isEqualTo(1);
+    }
+
+    @Test
+    void addExisting_replacesColumnsAndRemoveDropsRecipe() {
+        snapshot.add("a", List.of(RecipeCategory.POSTRE), false);
+        snapshot.remove("c");
+
+        int postre = RecipeFilterSnapshot.mask(List.of(RecipeCategory.POSTRE));
+        assertThat(snapshot.filter(postre, false, 0, 10).ids()).containsExactly("a");
+        assertThat(snapshot.size()).isEqualTo(3);
+    }
+}
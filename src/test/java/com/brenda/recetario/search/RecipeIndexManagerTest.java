@@ -0,0 +1,156 @@
+package com.brenda.recetario.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.events.RecipeChangedEvent;
+import com.brenda.recetario.service.IngredientSuggestionService;
+import com.brenda.recetario.utils.RecipeTestDataFactory;
+
+class RecipeIndexManagerTest {
+
+    private MongoTemplate mongoTemplate;
+    private IngredientSuggestionService suggestions;
+    private RecipeIndexManager manager;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        suggestions = new IngredientSuggestionService();
+        manager = new RecipeIndexManager(mongoTemplate, List.of(suggestions));
+    }
+
+    private Recipe recipe(String... ingredients) {
+        Recipe recipe = RecipeTestDataFactory.createValidRecipeEntity();
+        recipe.setNormalizedIngredients(List.of(ingredients));
+        return recipe;
+    }
+
+    @Test
+    void rebuild_loadsEveryRecipeIntoIndexes() {
+        when(mongoTemplate.stream(any(Query.class), eq(Recipe.class)))
+                .thenReturn(Stream.of(recipe("tomate", "queso"), recipe("tomate")));
+
+        manager.rebuild();
+
+        assertThat(manager.isReady()).isTrue();
+        assertThat(manager.size()).isEqualTo(2);
+        assertThat(suggestions.suggest("Tom", 5)).singleElement()
+                .satisfies(s -> assertThat(s.getRecipes()).isEqualTo(2));
+    }
+
+    @Test
+    void onRecipeChanged_replacesPreviousStateAndHandlesDeletes() {
+        Recipe recipe = recipe("tomate");
+        manager.onRecipeChanged(new RecipeChangedEvent(recipe.getId(), recipe));
+
+        Recipe updated = recipe("tofu");
+        updated.setId(recipe.getId());
+        manager.onRecipeChanged(new RecipeChangedEvent(recipe.getId(), updated));
+
+        assertThat(suggestions.suggest("to", 5)).extracting(s -> s.getIngredient()).containsExactly("tofu");
+
+        manager.onRecipeChanged(new RecipeChangedEvent(recipe.getId(), null));
+
+        assertThat(suggestions.suggest("to", 5)).isEmpty();
+        assertThat(manager.size()).isZero();
+    }
+
+    @Test
+    void warmStart_loadsSnapshotAndReplaysChangesSinceIt() throws IOException {
+        Recipe kept = recipe("tomate");
+        kept.setId("kept");
+        Recipe deleted = recipe("queso");
+        deleted.setId("deleted");
+        Path file = dir.resolve("index.snapshot");
+        RecipeSnapshotFile.write(file, Instant.now(), List.of(kept, deleted));
+        ReflectionTestUtils.setField(manager, "snapshotPath", file.toString());
+
+        Recipe added = recipe("tofu");
+        added.setId("added");
+        Recipe keptId = new Recipe();
+        keptId.setId("kept");
+        when(mongoTemplate.stream(any(Query.class), eq(Recipe.class)))
+                .thenReturn(Stream.of(keptId, added)).thenReturn(Stream.of(added));
+
+        assertThat(manager.warmStart()).isTrue();
+
+        assertThat(manager.isReady()).isTrue();
+        assertThat(manager.size()).isEqualTo(2);
+        assertThat(suggestions.suggest("to", 5)).extracting(s -> s.getIngredient())
+                .containsExactlyInAnyOrder("tomate", "tofu");
+        assertThat(suggestions.suggest("que", 5)).isEmpty();
+    }
+
+    @Test
+    void warmStart_withoutSnapshot_returnsFalse() {
+        ReflectionTestUtils.setField(manager, "snapshotPath", dir.resolve("missing.snapshot").toString());
+
+        assertThat(manager.warmStart()).isFalse();
+    }
+
+    @Test
+    void resync_patchesDifferencesWithoutDroppingUnchangedRecipes() {
+        Recipe kept = recipe("tomate");
+        kept.setId("kept");
+        Recipe deleted = recipe("queso");
+        deleted.setId("deleted");
+        Recipe changedMeanwhile = recipe("arroz");
+        changedMeanwhile.setId("meanwhile");
+        manager.onRecipeChanged(new RecipeChangedEvent(kept.getId(), kept));
+        manager.onRecipeChanged(new RecipeChangedEvent(deleted.getId(), deleted));
+
+        Recipe added = recipe("tofu");
+        added.setId("added");
+        Recipe staleCopy = recipe("avena");
+        staleCopy.setId("meanwhile");
+        when(mongoTemplate.stream(any(Query.class), eq(Recipe.class))).thenAnswer(invocation -> {
+            // A change applied while the collection is read wins over what the read returns
+            manager.onRecipeChanged(new RecipeChangedEvent(changedMeanwhile.getId(), changedMeanwhile));
+            return Stream.of(kept, added, staleCopy);
+        });
+
+        manager.resync();
+
+        assertThat(manager.size()).isEqualTo(3);
+        assertThat(suggestions.suggest("to", 5)).extracting(s -> s.getIngredient())
+                .containsExactlyInAnyOrder("tomate", "tofu");
+        assertThat(suggestions.suggest("que", 5)).isEmpty();
+        assertThat(suggestions.suggest("arr", 5)).hasSize(1);
+        assertThat(suggestions.suggest("ave", 5)).isEmpty();
+    }
+
+    @Test
+    void onRecipeChanged_olderVersionArrivingLate_isIgnored() {
+        Recipe newer = recipe("tofu");
+        newer.setVersion(3L);
+        Recipe older = recipe("tomate");
+        older.setId(newer.getId());
+        older.setVersion(2L);
+
+        manager.onRecipeChanged(new RecipeChangedEvent(newer.getId(), newer));
+        manager.onRecipeChanged(new RecipeChangedEvent(older.getId(), older));
+
+        assertThat(suggestions.suggest("to", 5)).extracting(s -> s.getIngredient()).containsExactly("tofu");
+    }
+}
@@ -0,0 +1,78 @@
+package com.brenda.recetario.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.enums.RecipeCategory;
+
+class RecipeSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    private Recipe recipe(String id, Boolean fit, String title, List<String> ingredients,
+            RecipeCategory... categories) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setCategories(List.of(categories));
+        recipe.setFit(fit);
+        recipe.setNormalizedTitle(title);
+        recipe.setNormalizedIngredients(ingredients);
+        return recipe;
+    }
+
+    @Test
+    void writeThenRead_restoresIndexedFieldsAndTimestamp() throws IOException {
+        Path file = dir.resolve("index.snapshot");
+        Instant takenAt = Instant.parse("2025-01-10T12:00:00Z");
+
+        RecipeSnapshotFile.write(file, takenAt, List.of(
+                recipe("1", true, "ensalada cesar", List.of("lechuga", "pollo"), RecipeCategory.ALMUERZO,
+                        RecipeCategory.CENA),
+                recipe("2", null, null, List.of())));
+
+        RecipeSnapshotFile.Snapshot snapshot = RecipeSnapshotFile.read(file);
+
+        assertThat(snapshot.takenAt()).isEqualTo(takenAt);
+        assertThat(snapshot.recipes()).hasSize(2);
+        Recipe first = snapshot.recipes().get(0);
+        assertThat(first.getCategories()).containsExactly(RecipeCategory.ALMUERZO, RecipeCategory.CENA);
+        assertThat(first.getFit()).isTrue();
+        assertThat(first.getNormalizedTitle()).isEqualTo("ensalada cesar");
+        assertThat(first.getNormalizedIngredients()).containsExactly("lechuga", "pollo");
+        assertThat(snapshot.recipes().get(1).getFit()).isNull();
+        assertThat(snapshot.recipes().get(1).getNormalizedTitle()).isNull();
+    }
+
+    @Test
+    void read_otherVersion_isRejected() throws IOException {
+        Path file = dir.resolve("old.snapshot");
+        Files.write(file, ByteBuffer.allocate(24).putInt(RecipeSnapshotFile.MAGIC)
+                .putInt(RecipeSnapshotFile.VERSION + 1).array());
+
+        assertThatThrownBy(() -> RecipeSnapshotFile.read(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void read_truncatedFile_isRejected() throws IOException {
+        Path file = dir.resolve("index.snapshot");
+        RecipeSnapshotFile.write(file, Instant.now(),
+                List.of(recipe("1", true, "flan", List.of("huevos", "leche"), RecipeCategory.POSTRE)));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+
+        assertThatThrownBy(() -> RecipeSnapshotFile.read(file)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.brenda.recetario.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SymSpellIndexTest {
+
+    private SymSpellIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SymSpellIndex(2);
+        index.add("tomate");
+        index.add("tomate");
+        index.add("tomillo");
+        index.add("azucar");
+        index.add("zapallo");
+    }
+
+    @Test
+    void lookup_missingLetter_findsTerm() {
+        assertThat(index.lookup("tomte", 1, 5)).extracting(SymSpellIndex.Correction::term)
+                .containsExactly("tomate");
+    }
+
+    @Test
+    void lookup_extraSubstitutedAndSwappedLetters_areWithinDistance() {
+        assertThat(index.lookup("tomatte", 1, 5)).extracting(SymSpellIndex.Correction::term).contains("tomate");
+        assertThat(index.lookup("azucer", 1, 5)).extracting(SymSpellIndex.Correction::term).contains("azucar");
+        assertThat(index.lookup("zapalol", 1, 5)).extracting(SymSpellIndex.Correction::term).contains("zapallo");
+    }
+
+    @Test
+    void lookup_ordersByDistanceThenPopularity() {
+        index.add("tomates");
+
+        assertThat(index.lookup("tomatez", 2, 5)).extracting(SymSpellIndex.Correction::term)
+                .containsExactly("tomate", "tomates");
+        assertThat(index.lookup("tomtes", 2, 5)).extracting(SymSpellIndex.Correction::term)
+                .containsExactly("tomates", "tomate");
+    }
+
+    @Test
+    void remove_lastReference_dropsTermFromVocabulary() {
+        index.remove("tomate");
+        assertThat(index.lookup("tomte", 1, 5)).extracting(SymSpellIndex.Correction::term)
+                .containsExactly("tomate");
+
+        index.remove("tomate");
+        assertThat(index.lookup("tomte", 1, 5)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void editDistance_countsTranspositionAsOneEdit() {
+        assertThat(SymSpellIndex.editDistance("azucar", "azuacr", 2)).isEqualTo(1);
+        assertThat(SymSpellIndex.editDistance("pollo", "polenta", 2)).isGreaterThan(2);
+    }
+
+    @Test
+    void lookup_overlongWord_returnsNothingWithoutGeneratingDeletes() {
+        assertThat(index.lookup("tomate".repeat(1000), 2, 5)).isEmpty();
+    }
+
+    @Test
+    void add_overlongTerm_isNotIndexed() {
+        index.add("x".repeat(SymSpellIndex.MAX_TERM_LENGTH + 1));
+
+        assertThat(index.size()).isEqualTo(4);
+    }
+}
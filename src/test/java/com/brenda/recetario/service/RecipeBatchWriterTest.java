@@ -0,0 +1,139 @@
+package com.brenda.recetario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.brenda.recetario.entity.Recipe;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecipeBatchWriterTest {
+    private static final Duration WAIT = Duration.ofSeconds(30);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RecipeBatchWriter writer;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void concurrentInserts_shouldBeWrittenTogetherWithTheirIds() throws Exception {
+        writer = new RecipeBatchWriter(mongoTemplate, meterRegistry, true, 8, Duration.ofMillis(200), WAIT);
+        writer.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Recipe>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Recipe recipe = recipe("receta " + i);
+            results.add(pool.submit(() -> writer.insert(recipe)));
+        }
+        for (Future<Recipe> result : results) {
+            assertThat(result.get().getId()).isNotNull();
+        }
+        pool.shutdown();
+
+        verify(mongoTemplate, never()).insert(any(Recipe.class));
+        double batches = meterRegistry.summary("recipes.batch.size").count();
+        assertThat(batches).isLessThan(8);
+        assertThat(meterRegistry.summary("recipes.batch.size").totalAmount()).isEqualTo(8);
+    }
+
+    @Test
+    void failedBatch_shouldRetryEachRecipeAndOnlyFailTheBadOne() {
+        writer = new RecipeBatchWriter(mongoTemplate, meterRegistry, true, 8, Duration.ofMillis(1), WAIT);
+        writer.start();
+        doThrow(new DuplicateKeyException("duplicado")).when(mongoTemplate).insertAll(any());
+        when(mongoTemplate.exists(any(Query.class), eq(Recipe.class))).thenReturn(false);
+        when(mongoTemplate.insert(any(Recipe.class))).thenThrow(new DuplicateKeyException("duplicado"));
+
+        assertThrows(DuplicateKeyException.class, () -> writer.insert(recipe("mala")));
+        verify(mongoTemplate).insertAll(argThat((Collection<Recipe> batch) -> batch.size() == 1));
+        verify(mongoTemplate, times(1)).insert(any(Recipe.class));
+    }
+
+    @Test
+    void timedOutInsert_shouldNeverBeWrittenLater() throws Exception {
+        writer = new RecipeBatchWriter(mongoTemplate, meterRegistry, true, 1, Duration.ofMillis(1),
+                Duration.ofMillis(500));
+        writer.start();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        }).when(mongoTemplate).insertAll(any());
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<Recipe> first = pool.submit(() -> writer.insert(recipe("primera")));
+        writing.await();
+        assertThrows(IllegalStateException.class, () -> writer.insert(recipe("abandonada")));
+        release.countDown();
+        assertThat(first.get().getId()).isNotNull();
+        pool.shutdown();
+        writer.stop();
+
+        verify(mongoTemplate, times(1)).insertAll(any());
+        verify(mongoTemplate, never()).insert(any(Recipe.class));
+    }
+
+    @Test
+    void stoppedWriter_shouldInsertDirectly() throws Exception {
+        writer = new RecipeBatchWriter(mongoTemplate, meterRegistry, true, 8, Duration.ofMillis(5), WAIT);
+        writer.start();
+        writer.stop();
+        Recipe recipe = recipe("tardía");
+        when(mongoTemplate.insert(recipe)).thenReturn(recipe);
+
+        assertThat(writer.insert(recipe)).isSameAs(recipe);
+        verify(mongoTemplate, never()).insertAll(any());
+    }
+
+    @Test
+    void disabledWriter_shouldInsertDirectly() {
+        writer = new RecipeBatchWriter(mongoTemplate, meterRegistry, false, 8, Duration.ofMillis(5), WAIT);
+        writer.start();
+        Recipe recipe = recipe("directa");
+        when(mongoTemplate.insert(recipe)).thenReturn(recipe);
+
+        assertThat(writer.isEnabled()).isFalse();
+        assertThat(writer.insert(recipe)).isSameAs(recipe);
+        verify(mongoTemplate, never()).insertAll(any());
+    }
+
+    private static Recipe recipe(String title) {
+        Recipe recipe = new Recipe();
+        recipe.setTitle(title);
+        return recipe;
+    }
+}
@@ -0,0 +1,96 @@
+package com.brenda.recetario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.enums.RecipeCategory;
+import com.brenda.recetario.enums.SearchStrategy;
+import com.brenda.recetario.models.RecipeFacetedSearchResponseDTO;
+import com.brenda.recetario.models.RecipeFilteredResponseDTO;
+
+class RecipeFacetServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private RecipeService recipeService;
+    private RecipeFacetService recipeFacetService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        recipeService = mock(RecipeService.class);
+        when(recipeService.searchRecipes(any(), any(), any(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(page()),
+                        PageRequest.of(invocation.getArgument(3), invocation.getArgument(4)), 1));
+        recipeFacetService = new RecipeFacetService(mongoTemplate, recipeService, mock(RecipeFilterService.class),
+                mock(RecipeSummaryService.class), SearchStrategy.REGEX, Duration.ofSeconds(30));
+    }
+
+    private RecipeFilteredResponseDTO page() {
+        Recipe recipe = new Recipe();
+        recipe.setId("1");
+        recipe.setTitle("Pizza");
+        recipe.setCategories(List.of(RecipeCategory.CENA));
+        recipe.setFit(true);
+        return new RecipeFilteredResponseDTO(recipe);
+    }
+
+    private Document facetResult() {
+        return new Document()
+                .append("total", List.of(new Document("count", 1)))
+                .append("categories", List.of(new Document("_id", "CENA").append("count", 3),
+                        new Document("_id", "POSTRE").append("count", 2)))
+                .append("fit", List.of(new Document("_id", true).append("count", 4),
+                        new Document("_id", false).append("count", 1)));
+    }
+
+    @Test
+    void searchWithFacets_shouldTakeThePageFromSearchAndCountsFromOneAggregation() {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Recipe.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(facetResult()), new Document()));
+
+        RecipeFacetedSearchResponseDTO result = recipeFacetService.searchWithFacets(null, null, "pizza", 0, 10);
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Pizza", result.getContent().get(0).getTitle());
+        assertEquals(3L, result.getFacets().getCategories().get(RecipeCategory.CENA));
+        assertEquals(0L, result.getFacets().getCategories().get(RecipeCategory.DESAYUNO));
+        assertEquals(4, result.getFacets().getFit());
+        assertEquals(1, result.getFacets().getNonFit());
+        // Same ordering as /recipes/search
+        verify(recipeService).searchRecipes(null, null, "pizza", 0, 10);
+    }
+
+    @Test
+    void searchWithFacets_sameFilters_shouldReuseCachedFacetBlock() {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Recipe.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(facetResult()), new Document()));
+
+        recipeFacetService.searchWithFacets(List.of("CENA"), true, "Pizza", 0, 10);
+        RecipeFacetedSearchResponseDTO second = recipeFacetService.searchWithFacets(List.of("CENA"), true, "pizza ",
+                1, 10);
+
+        assertEquals(1, second.getTotalElements());
+        assertEquals(3L, second.getFacets().getCategories().get(RecipeCategory.CENA));
+        verify(mongoTemplate, times(1)).aggregate(any(Aggregation.class), eq(Recipe.class), eq(Document.class));
+        verify(recipeService).searchRecipes(List.of("CENA"), true, "pizza ", 1, 10);
+    }
+}
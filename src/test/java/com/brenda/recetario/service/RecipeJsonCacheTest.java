@@ -0,0 +1,90 @@
+package com.brenda.recetario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.events.RecipeChangedEvent;
+import com.brenda.recetario.models.RecipeResponseDTO;
+import com.brenda.recetario.utils.RecipeTestDataFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecipeJsonCacheTest {
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setFilterProvider(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    private final RecipeJsonCache cache = new RecipeJsonCache(objectMapper, new SimpleMeterRegistry(),
+            DataSize.ofMegabytes(1), Duration.ofMinutes(10), DataSize.ofBytes(64));
+
+    @Test
+    void secondRead_shouldServeTheSameBytesWithoutLoading() {
+        AtomicInteger loads = new AtomicInteger();
+        RecipeResponseDTO dto = dto(3L);
+
+        RecipeJsonCache.RecipeJson first = cache.get("1", () -> {
+            loads.incrementAndGet();
+            return dto;
+        });
+        RecipeJsonCache.RecipeJson second = cache.get("1", () -> {
+            loads.incrementAndGet();
+            return dto;
+        });
+
+        assertThat(loads).hasValue(1);
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.json(), StandardCharsets.UTF_8)).contains("\"instructions\"");
+        assertThat(first.etag()).startsWith("\"3-");
+        assertThat(first.matches("W/" + first.etag() + ", \"otro\"")).isTrue();
+        assertThat(first.matches("\"otro\"")).isFalse();
+    }
+
+    @Test
+    void gzipVariant_shouldDecompressToTheSameJson() throws Exception {
+        RecipeJsonCache.RecipeJson json = cache.get("1", () -> dto(1L));
+
+        assertThat(json.gzip()).isNotNull();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(json.gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(json.json());
+        }
+    }
+
+    @Test
+    void recipeChange_shouldDropTheEntry() {
+        cache.get("1", () -> dto(1L));
+        cache.onRecipeChanged(new RecipeChangedEvent("1", null));
+
+        RecipeJsonCache.RecipeJson reloaded = cache.get("1", () -> dto(2L));
+
+        assertThat(reloaded.etag()).startsWith("\"2-");
+    }
+
+    @Test
+    void loadRacingWithAnUpdate_shouldNotBeKept() {
+        cache.get("1", () -> {
+            RecipeResponseDTO stale = dto(1L);
+            // The update commits and publishes while the old version is being read
+            cache.onRecipeChanged(new RecipeChangedEvent("1", new Recipe()));
+            return stale;
+        });
+
+        assertThat(cache.size()).isZero();
+    }
+
+    private static RecipeResponseDTO dto(Long version) {
+        Recipe recipe = RecipeTestDataFactory.createValidRecipeEntity();
+        recipe.setVersion(version);
+        recipe.setInstructions("Mezclar todo. ".repeat(20));
+        return new RecipeResponseDTO(recipe);
+    }
+}
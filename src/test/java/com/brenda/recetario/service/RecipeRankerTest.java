@@ -0,0 +1,72 @@
+package com.brenda.recetario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.brenda.recetario.entity.Recipe;
+
+class RecipeRankerTest {
+
+    private Recipe recipe(String title, String... ingredients) {
+        Recipe recipe = new Recipe();
+        recipe.setTitle(title);
+        recipe.setNormalizedTitle(title);
+        recipe.setNormalizedIngredients(List.of(ingredients));
+        return recipe;
+    }
+
+    @Test
+    void score_titleExactBeatsSubstringAndIngredientMentions() {
+        String[] keywords = { "sal" };
+
+        double exactTitle = RecipeRanker.score(recipe("pescado a la sal", "merluza", "sal gruesa"), keywords);
+        double substringTitle = RecipeRanker.score(recipe("salsa blanca", "leche", "harina"), keywords);
+        double ingredientOnly = RecipeRanker.score(recipe("tortilla", "huevos", "papas", "sal"), keywords);
+
+        assertThat(exactTitle).isGreaterThan(substringTitle);
+        assertThat(substringTitle).isGreaterThan(ingredientOnly);
+    }
+
+    @Test
+    void score_moreMatchedIngredientsRankHigher() {
+        String[] keywords = { "tomate", "queso" };
+
+        double both = RecipeRanker.score(recipe("pizza", "tomate", "queso", "harina"), keywords);
+        double one = RecipeRanker.score(recipe("pizza", "tomate", "harina", "aceite"), keywords);
+
+        assertThat(both).isGreaterThan(one);
+    }
+
+    @Test
+    void topK_keepsOnlyBestKInScoreOrderAndCountsAllCandidates() {
+        List<Recipe> candidates = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            candidates.add(recipe("guiso " + i, "carne", "papa"));
+        }
+        candidates.add(recipe("pollo", "pollo"));
+        candidates.add(recipe("pollo al horno", "pollo", "papa"));
+
+        RecipeRanker.RankedPage page = RecipeRanker.topK(candidates.iterator(), new String[] { "pollo" }, 3);
+
+        assertThat(page.total()).isEqualTo(52);
+        assertThat(page.recipes()).hasSize(3);
+        assertThat(page.recipes().get(0).getTitle()).isEqualTo("pollo");
+        assertThat(page.recipes().get(1).getTitle()).isEqualTo("pollo al horno");
+        assertThat(page.recipes().get(2).getTitle()).isEqualTo("guiso 0");
+    }
+
+    @Test
+    void topK_hugeKDoesNotPreallocate() {
+        List<Recipe> candidates = List.of(recipe("sopa", "agua"), recipe("sopa de tomate", "tomate"));
+
+        RecipeRanker.RankedPage page = RecipeRanker.topK(candidates.iterator(), new String[] { "tomate" },
+                Integer.MAX_VALUE);
+
+        assertThat(page.total()).isEqualTo(2);
+        assertThat(page.recipes()).extracting(Recipe::getTitle).containsExactly("sopa de tomate", "sopa");
+    }
+}
@@ -1,35 +1,56 @@
 package com.brenda.recetario.service;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.enums.BulkDeleteStatus;
+import com.brenda.recetario.enums.SearchStrategy;
+import com.brenda.recetario.events.RecipeChangedEvent;
 import com.brenda.recetario.exceptions.ImageUploadException;
 import com.brenda.recetario.exceptions.InvalidDataException;
+import com.brenda.recetario.exceptions.RecipeConflictException;
 import com.brenda.recetario.exceptions.RecipeNotFoundException;
+import com.brenda.recetario.models.ImageReferenceDTO;
+import com.brenda.recetario.models.RecipeBulkDeleteResultDTO;
 import com.brenda.recetario.models.RecipeCreateDTO;
 import com.brenda.recetario.models.RecipeFilteredResponseDTO;
 import com.brenda.recetario.models.RecipeResponseDTO;
 import com.brenda.recetario.models.RecipeUpdateDTO;
 import com.brenda.recetario.repository.RecipeRepository;
+import com.brenda.recetario.search.RecipeFilterSnapshot;
 import com.brenda.recetario.utils.RecipeTestDataFactory;
+import com.mongodb.client.result.DeleteResult;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,6 +65,24 @@ class RecipeServiceTest {
     @Mock
     private MongoTemplate mongoTemplate;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FuzzySearchService fuzzySearchService;
+
+    @Mock
+    private RecipeFilterService recipeFilterService;
+
+    @Mock
+    private RecipeSummaryService recipeSummaryService;
+
+    @Mock
+    private RecipeBatchWriter recipeBatchWriter;
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(new SimpleMeterRegistry());
+
     @InjectMocks
     private RecipeService recipeService;
 
@@ -71,6 +110,8 @@ class RecipeServiceTest {
         assertEquals("https://image.url/test.jpg", result.getImageUrl());
         verify(recipeRepository).save(any(Recipe.class));
         verify(imageService).uploadImage(image);
+        verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof RecipeChangedEvent changed
+                && changed.getRecipe() == result));
     }
 
     @Test
@@ -86,6 +127,21 @@ class RecipeServiceTest {
         verify(imageService, never()).uploadImage(any());
     }
 
+    @Test
+    void createRecipe_withDirectUploadReference_shouldNotReceiveBytes() {
+        RecipeCreateDTO dto = RecipeTestDataFactory.createValidRecipeCreateDTO();
+        ImageReferenceDTO imageRef = new ImageReferenceDTO("recetario_abc", "1712345678", "firma", "jpg");
+        dto.setImageRef(imageRef);
+
+        when(imageService.resolveUploadedImage(imageRef)).thenReturn("https://res.cloudinary.com/demo/abc.jpg");
+        when(recipeRepository.save(any(Recipe.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Recipe result = recipeService.createRecipe(dto, null);
+
+        assertEquals("https://res.cloudinary.com/demo/abc.jpg", result.getImageUrl());
+        verify(imageService, never()).uploadImage(any());
+    }
+
     @Test
     void createRecipe_errorWhenUploadImage_shouldThrowInvalidDataException() throws Exception {
         RecipeCreateDTO dto = RecipeTestDataFactory.createValidRecipeCreateDTO();
@@ -122,6 +178,18 @@ class RecipeServiceTest {
         verify(recipeRepository).findById("999");
     }
 
+    @Test
+    void getRecipeById_withFields_shouldUseProjectedQuery() {
+        Recipe recipe = RecipeTestDataFactory.createValidRecipeEntity();
+        when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class))).thenReturn(recipe);
+
+        RecipeResponseDTO result = recipeService.getRecipeById(recipe.getId(), Set.of("id", "title"));
+
+        assertEquals(recipe.getTitle(), result.getTitle());
+        verify(mongoTemplate).findOne(any(Query.class), eq(Recipe.class));
+        verify(recipeRepository, never()).findById(any());
+    }
+
     // ---------------------------------------------------------
     // UPDATE RECIPE
     // ---------------------------------------------------------
@@ -133,10 +201,10 @@ class RecipeServiceTest {
         RecipeUpdateDTO updateDTO = RecipeTestDataFactory.createValidRecipeUpdateDTO();
         MultipartFile nuevaImagen = mock(MultipartFile.class);
 
-        when(recipeRepository.findById(updateDTO.getId())).thenReturn(Optional.of(existingRecipe));
         when(nuevaImagen.isEmpty()).thenReturn(false);
         when(imageService.uploadImage(nuevaImagen)).thenReturn("https://new-image.url/test.jpg");
-        when(recipeRepository.save(any(Recipe.class))).thenReturn(existingRecipe);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Recipe.class))).thenReturn(existingRecipe);
 
         Recipe result = recipeService.updateRecipe(updateDTO, nuevaImagen);
 
@@ -145,7 +213,7 @@ class RecipeServiceTest {
         assertEquals("https://new-image.url/test.jpg", result.getImageUrl());
         verify(imageService).uploadImage(nuevaImagen);
         verify(imageService).deleteImage("https://old-image.url/test.jpg");
-        verify(recipeRepository).save(any(Recipe.class));
+        verify(recipeRepository, never()).save(any(Recipe.class));
     }
 
     @Test
@@ -155,24 +223,67 @@ class RecipeServiceTest {
 
         RecipeUpdateDTO updateDTO = RecipeTestDataFactory.createValidRecipeUpdateDTO();
 
-        when(recipeRepository.findById(updateDTO.getId())).thenReturn(Optional.of(existingRecipe));
-        when(recipeRepository.save(any(Recipe.class))).thenReturn(existingRecipe);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Recipe.class))).thenReturn(existingRecipe);
 
         Recipe result = recipeService.updateRecipe(updateDTO, null);
 
         assertNotNull(result);
         assertEquals("https://old-image.url/test.jpg", result.getImageUrl());
         verify(imageService, never()).uploadImage(any());
-        verify(recipeRepository).save(any(Recipe.class));
+        verify(recipeRepository, never()).findById(any());
+    }
+
+    @Test
+    void updateRecipe_partial_shouldSetOnlyPresentFieldsAndRenormalizeTitle() {
+        Recipe existingRecipe = RecipeTestDataFactory.createValidRecipeEntity();
+        existingRecipe.setVersion(3L);
+        List<String> ingredients = existingRecipe.getIngredients();
+
+        RecipeUpdateDTO updateDTO = new RecipeUpdateDTO();
+        updateDTO.setId("1");
+        updateDTO.setTitle("Pizza Napolitana");
+        updateDTO.setVersion(3L);
+
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Recipe.class))).thenReturn(existingRecipe);
+
+        Recipe result = recipeService.updateRecipe(updateDTO, null);
+
+        assertEquals("pizza napolitana", result.getNormalizedTitle());
+        assertEquals(ingredients, result.getIngredients());
+        assertEquals(4L, result.getVersion());
+        verify(mongoTemplate).findAndModify(
+                argThat(query -> query.getQueryObject().get("version").equals(3L)),
+                argThat(update -> {
+                    Document set = (Document) update.getUpdateObject().get("$set");
+                    return set.containsKey("title") && set.containsKey("normalizedTitle")
+                            && !set.containsKey("ingredients") && !set.containsKey("normalizedIngredients");
+                }),
+                any(FindAndModifyOptions.class), eq(Recipe.class));
+    }
+
+    @Test
+    void updateRecipe_staleVersion_shouldThrowRecipeConflictException() {
+        RecipeUpdateDTO dto = RecipeTestDataFactory.createValidRecipeUpdateDTO();
+        dto.setVersion(1L);
+
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Recipe.class))).thenReturn(null);
+        when(mongoTemplate.exists(any(Query.class), eq(Recipe.class))).thenReturn(true);
+
+        assertThrows(RecipeConflictException.class, () -> recipeService.updateRecipe(dto, null));
     }
 
     @Test
     void updateRecipe_NonExisting_shouldThrowRecipeNotFoundException() {
         RecipeUpdateDTO dto = RecipeTestDataFactory.createValidRecipeUpdateDTO();
-        when(recipeRepository.findById(dto.getId())).thenReturn(Optional.empty());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Recipe.class))).thenReturn(null);
 
         assertThrows(RecipeNotFoundException.class, () -> recipeService.updateRecipe(dto, null));
-        verify(recipeRepository).findById(dto.getId());
+        verify(mongoTemplate).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Recipe.class));
     }
 
     // ---------------------------------------------------------
@@ -189,6 +300,8 @@ class RecipeServiceTest {
 
         verify(imageService).deleteImage("https://image.url/test.jpg");
         verify(recipeRepository).delete(recipe);
+        verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof RecipeChangedEvent changed
+                && changed.getRecipeId().equals(recipe.getId()) && changed.isDeleted()));
     }
 
     @Test
@@ -211,6 +324,35 @@ class RecipeServiceTest {
         assertThrows(RecipeNotFoundException.class, () -> recipeService.deleteRecipe("999"));
     }
 
+    @Test
+    void deleteRecipes_shouldRemoveFoundOnesInOneQueryAndReportPerId() {
+        Recipe withImage = new Recipe();
+        withImage.setId("1");
+        withImage.setImageUrl("https://image.url/uno.jpg");
+        Recipe withoutImage = new Recipe();
+        withoutImage.setId("2");
+
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class))).thenReturn(List.of(withImage, withoutImage));
+        when(mongoTemplate.remove(any(Query.class), eq(Recipe.class))).thenReturn(DeleteResult.acknowledged(2));
+        when(imageService.deleteImages(any())).thenReturn(Map.of("https://image.url/uno.jpg", true));
+
+        List<RecipeBulkDeleteResultDTO> results = recipeService.deleteRecipes(List.of("1", "2", "3", "1"));
+
+        assertEquals(List.of(
+                new RecipeBulkDeleteResultDTO("1", BulkDeleteStatus.DELETED, true),
+                new RecipeBulkDeleteResultDTO("2", BulkDeleteStatus.DELETED, null),
+                new RecipeBulkDeleteResultDTO("3", BulkDeleteStatus.NOT_FOUND, null)), results);
+        verify(mongoTemplate).remove(any(Query.class), eq(Recipe.class));
+        verify(imageService).deleteImages(argThat(urls -> urls.size() == 1));
+        verify(imageService, never()).deleteImage(any());
+        verify(recipeRepository, never()).delete(any());
+    }
+
+    @Test
+    void deleteRecipes_withoutIds_shouldThrowInvalidDataException() {
+        assertThrows(InvalidDataException.class, () -> recipeService.deleteRecipes(List.of(" ")));
+    }
+
     // ---------------------------------------------------------
     // SEARCH RECIPES
     // ---------------------------------------------------------
@@ -223,7 +365,7 @@ class RecipeServiceTest {
         when(mongoTemplate.count(any(Query.class), eq(Recipe.class))).thenReturn(1L);
 
         Page<RecipeFilteredResponseDTO> result = recipeService.searchRecipes(
-                List.of("CENA"), true, "pollo", 0, 10);
+                List.of("CENA"), true, null, 0, 10);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
@@ -231,4 +373,75 @@ class RecipeServiceTest {
         verify(mongoTemplate).find(any(Query.class), eq(Recipe.class));
         verify(mongoTemplate).count(any(Query.class), eq(Recipe.class));
     }
+
+    @Test
+    void searchRecipes_filterOnly_shouldUseSnapshotAndLoadOnlyThePage() {
+        Recipe recipe = RecipeTestDataFactory.createValidRecipeEntity();
+        recipe.setId("r1");
+
+        when(recipeFilterService.filter(List.of("CENA"), true, 0L, 1))
+                .thenReturn(Optional.of(new RecipeFilterSnapshot.Slice(List.of("r1"), 7)));
+        when(recipeSummaryService.findSummaries(eq(List.of("r1")), any())).thenReturn(Map.of("r1", recipe));
+
+        Page<RecipeFilteredResponseDTO> result = recipeService.searchRecipes(
+                List.of("CENA"), true, null, 0, 1);
+
+        assertEquals(7, result.getTotalElements());
+        assertEquals(recipe.getTitle(), result.getContent().get(0).getTitle());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Recipe.class));
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Recipe.class));
+    }
+
+    @Test
+    void searchRecipes_withKeywords_shouldReturnRankedPage() {
+        Recipe passing = RecipeTestDataFactory.createValidRecipeEntity();
+        passing.setTitle("Tarta de verduras");
+        passing.setNormalizedTitle("tarta de verduras");
+        passing.setNormalizedIngredients(List.of("masa", "acelga", "pollo desmenuzado"));
+
+        Recipe titleHit = RecipeTestDataFactory.createValidRecipeEntity();
+        titleHit.setTitle("Pollo al horno");
+        titleHit.setNormalizedTitle("pollo al horno");
+        titleHit.setNormalizedIngredients(List.of("pollo", "papas"));
+
+        when(mongoTemplate.stream(any(Query.class), eq(Recipe.class))).thenReturn(Stream.of(passing, titleHit));
+
+        Page<RecipeFilteredResponseDTO> result = recipeService.searchRecipes(
+                List.of("CENA"), true, "pollo", 0, 10);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals("Pollo al horno", result.getContent().get(0).getTitle());
+        assertEquals("Tarta de verduras", result.getContent().get(1).getTitle());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Recipe.class));
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Recipe.class));
+    }
+
+    @Test
+    void searchRecipes_withTextStrategy_shouldUseTextQuerySortedByScore() {
+        ReflectionTestUtils.setField(recipeService, "searchStrategy", SearchStrategy.TEXT);
+        Recipe recipe = RecipeTestDataFactory.createValidRecipeEntity();
+
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class))).thenReturn(List.of(recipe));
+        when(mongoTemplate.count(any(Query.class), eq(Recipe.class))).thenReturn(1L);
+
+        Page<RecipeFilteredResponseDTO> result = recipeService.searchRecipes(
+                List.of("CENA"), true, "tomates", 0, 10);
+
+        assertEquals(1, result.getTotalElements());
+        verify(mongoTemplate).find(argThat(query -> query instanceof TextQuery
+                && query.getQueryObject().containsKey("$text")
+                && query.getSortObject().containsKey("score")), eq(Recipe.class));
+    }
+
+    @Test
+    void searchRecipes_fuzzy_shouldExpandMisspelledKeywords() {
+        when(fuzzySearchService.expand("tomte")).thenReturn(new LinkedHashSet<>(List.of("tomte", "tomate")));
+        when(mongoTemplate.stream(any(Query.class), eq(Recipe.class))).thenReturn(Stream.empty());
+
+        recipeService.searchRecipes(null, null, "tomte", 0, 10, null, true);
+
+        verify(fuzzySearchService).expand("tomte");
+        verify(mongoTemplate).stream(argThat(query -> query.getQueryObject().toJson().contains("tomate")),
+                eq(Recipe.class));
+    }
 }
@@ -0,0 +1,106 @@
+package com.brenda.recetario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.brenda.recetario.exceptions.RecipeNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(meterRegistry);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("recipes.coalescer.calls", "operation", "getRecipeById", "result", result)
+                .count();
+    }
+
+    @Test
+    void execute_concurrentSameKey_runsLoaderOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> coalescer.execute("getRecipeById", "1", () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "pizza";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(executor.submit(() -> coalescer.execute("getRecipeById", "1", () -> {
+                loads.incrementAndGet();
+                return "otra";
+            })));
+        }
+        while (count("collapsed") < 3) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("pizza");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("pizza");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(count("executed")).isEqualTo(1);
+        assertThat(coalescer.inFlight()).isZero();
+    }
+
+    @Test
+    void execute_afterCompletion_runsAgain() {
+        coalescer.execute("getRecipeById", "1", () -> "a");
+        String second = coalescer.execute("getRecipeById", "1", () -> "b");
+
+        assertThat(second).isEqualTo("b");
+        assertThat(count("executed")).isEqualTo(2);
+    }
+
+    @Test
+    void execute_loaderFails_propagatesExceptionAndClearsKey() {
+        assertThatThrownBy(() -> coalescer.execute("getRecipeById", "1", () -> {
+            throw new RecipeNotFoundException("La receta especificada no existe.");
+        })).isInstanceOf(RecipeNotFoundException.class);
+
+        assertThat(coalescer.inFlight()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
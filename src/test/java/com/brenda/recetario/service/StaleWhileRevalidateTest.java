@@ -0,0 +1,111 @@
+package com.brenda.recetario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.brenda.recetario.entity.Recipe;
+import com.brenda.recetario.events.RecipeChangedEvent;
+import com.brenda.recetario.exceptions.RecipeNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StaleWhileRevalidateTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StaleWhileRevalidate swr = new StaleWhileRevalidate(meterRegistry, true, Duration.ofHours(1),
+            100);
+
+    @Test
+    void slowButHealthyDatabase_shouldAnswerFreshOnTheCallerThread() {
+        swr.get("k", () -> "v1");
+        Thread caller = Thread.currentThread();
+
+        StaleWhileRevalidate.Served<String> served = swr.get("k", () -> {
+            assertThat(Thread.currentThread()).isSameAs(caller);
+            sleep(100);
+            return "v2";
+        });
+
+        assertThat(served.stale()).isFalse();
+        assertThat(served.value()).isEqualTo("v2");
+    }
+
+    @Test
+    void databaseError_shouldServeTheLastCopy() {
+        swr.get("k", () -> "v1");
+
+        StaleWhileRevalidate.Served<String> served = swr.get("k", () -> {
+            throw new DataAccessResourceFailureException("sin primario");
+        });
+
+        assertThat(served.stale()).isTrue();
+        assertThat(served.value()).isEqualTo("v1");
+        assertThat(meterRegistry.counter("recipes.stale.served", "reason", "error").count()).isEqualTo(1);
+    }
+
+    @Test
+    void applicationError_shouldBeThrownAndDropTheCopy() {
+        swr.get("k", () -> "v1");
+
+        assertThrows(RecipeNotFoundException.class, () -> swr.get("k", () -> {
+            throw new RecipeNotFoundException("La receta especificada no existe.");
+        }));
+        assertThrows(DataAccessResourceFailureException.class, () -> swr.get("k", () -> {
+            throw new DataAccessResourceFailureException("sin primario");
+        }));
+    }
+
+    @Test
+    void noCopy_shouldWaitForTheDatabase() {
+        AtomicInteger calls = new AtomicInteger();
+
+        StaleWhileRevalidate.Served<Integer> served = swr.get("k", calls::incrementAndGet);
+
+        assertThat(served.stale()).isFalse();
+        assertThat(served.value()).isEqualTo(1);
+    }
+
+    @Test
+    void deletedRecipe_shouldNotBeServedStale() {
+        Object key = StaleWhileRevalidate.detailKey("1");
+        swr.get(key, () -> "receta");
+        swr.onRecipeChanged(new RecipeChangedEvent("1", null));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> swr.get(key, () -> {
+            throw new DataAccessResourceFailureException("sin primario");
+        }));
+    }
+
+    @Test
+    void updatedRecipe_shouldDropItsCopyAndEverySearchCopy() {
+        Object detail = StaleWhileRevalidate.detailKey("1");
+        Object search = StaleWhileRevalidate.searchKey(null, null, "tomate", 0, 10, null, false);
+        swr.get(detail, () -> "receta");
+        swr.get(search, () -> "página");
+        swr.get("otra", () -> "intacta");
+        Recipe updated = new Recipe();
+        updated.setId("1");
+        swr.onRecipeChanged(new RecipeChangedEvent("1", updated));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> swr.get(detail, StaleWhileRevalidateTest::down));
+        assertThrows(DataAccessResourceFailureException.class, () -> swr.get(search, StaleWhileRevalidateTest::down));
+        assertThat(swr.get("otra", StaleWhileRevalidateTest::down).value()).isEqualTo("intacta");
+    }
+
+    private static String down() {
+        throw new DataAccessResourceFailureException("sin primario");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.brenda.recetario.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class HotKeyRecorderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void withoutPath_shouldRecordNothing() {
+        HotKeyRecorder recorder = new HotKeyRecorder(objectMapper, "", 10);
+
+        recorder.recordRecipe("a");
+
+        assertThat(recorder.isEnabled()).isFalse();
+        assertThat(recorder.top().recipes()).isEmpty();
+        assertThat(recorder.load()).isEqualTo(HotKeyRecorder.HotKeys.EMPTY);
+    }
+
+    @Test
+    void top_shouldKeepTheMostRequestedKeys() {
+        HotKeyRecorder recorder = new HotKeyRecorder(objectMapper, dir.resolve("hot.json").toString(), 2);
+        record(recorder, "a", 3);
+        record(recorder, "b", 1);
+        record(recorder, "c", 2);
+
+        assertThat(recorder.top().recipes()).extracting(HotKeyRecorder.Hit::key).containsExactly("a", "c");
+    }
+
+    @Test
+    void write_shouldBeLoadedByTheNextRunWithHalvedCounts() {
+        String path = dir.resolve("hot.json").toString();
+        SearchQuery query = new SearchQuery(List.of("CENA"), true, "tomate", 0, 10, null, false);
+        HotKeyRecorder recorder = new HotKeyRecorder(objectMapper, path, 10);
+        record(recorder, "a", 4);
+        recorder.recordSearch(query);
+        recorder.recordSearch(query);
+        recorder.write();
+
+        HotKeyRecorder restarted = new HotKeyRecorder(objectMapper, path, 10);
+        HotKeyRecorder.HotKeys loaded = restarted.load();
+
+        assertThat(loaded.recipes()).containsExactly(new HotKeyRecorder.Hit<>("a", 4));
+        assertThat(loaded.searches()).containsExactly(new HotKeyRecorder.Hit<>(query, 2));
+        assertThat(restarted.top().recipes()).containsExactly(new HotKeyRecorder.Hit<>("a", 2));
+    }
+
+    @Test
+    void load_shouldIgnoreAnUnreadableFile() throws Exception {
+        Path path = dir.resolve("hot.json");
+        Files.writeString(path, "{roto");
+
+        assertThat(new HotKeyRecorder(objectMapper, path.toString(), 10).load())
+                .isEqualTo(HotKeyRecorder.HotKeys.EMPTY);
+    }
+
+    private static void record(HotKeyRecorder recorder, String id, int times) {
+        for (int i = 0; i < times; i++) {
+            recorder.recordRecipe(id);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.brenda.recetario.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.brenda.recetario.exceptions.RecipeNotFoundException;
+import com.brenda.recetario.models.RecipeFilteredResponseDTO;
+import com.brenda.recetario.models.RecipeResponseDTO;
+import com.brenda.recetario.service.RecipeJsonCache;
+import com.brenda.recetario.service.RecipeService;
+import com.brenda.recetario.service.StaleWhileRevalidate;
+import com.brenda.recetario.utils.RecipeTestDataFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecipeWarmUpTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setFilterProvider(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    private final RecipeService recipeService = mock(RecipeService.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final RecipeJsonCache recipeJsonCache = new RecipeJsonCache(objectMapper, meterRegistry,
+            DataSize.ofMegabytes(1), Duration.ofMinutes(10), DataSize.ofKilobytes(1));
+    private final StaleWhileRevalidate swr = new StaleWhileRevalidate(meterRegistry, true, Duration.ofHours(1),
+            100);
+    private final HotKeyRecorder hotKeyRecorder = new HotKeyRecorder(objectMapper, "", 10);
+    private final RecipeWarmUp warmUp = new RecipeWarmUp(recipeService, recipeJsonCache, swr, hotKeyRecorder,
+            mongoTemplate, objectMapper, meterRegistry, true, 5, 2, Duration.ofSeconds(5));
+
+    @Test
+    void preload_shouldFillTheCachesUnderTheControllerKeys() throws Exception {
+        RecipeResponseDTO recipe = new RecipeResponseDTO(RecipeTestDataFactory.createValidRecipeEntity());
+        Page<RecipeFilteredResponseDTO> page = new PageImpl<>(List.of());
+        SearchQuery query = new SearchQuery(List.of("CENA"), null, "tomate", 0, 10, null, false);
+        when(recipeService.getRecipeById("r1")).thenReturn(recipe);
+        when(recipeService.searchRecipes(List.of("CENA"), null, "tomate", 0, 10, null, false)).thenReturn(page);
+
+        int preloaded = warmUp.preload(new HotKeyRecorder.HotKeys(List.of(new HotKeyRecorder.Hit<>("r1", 5)),
+                List.of(new HotKeyRecorder.Hit<>(query, 3))), far());
+
+        assertThat(preloaded).isEqualTo(2);
+        assertThat(recipeJsonCache.get("r1", () -> {
+            throw new AssertionError("should come from the cache");
+        }).json()).isEqualTo(objectMapper.writeValueAsBytes(recipe));
+        // A copy exists, so a failing database is answered from it
+        StaleWhileRevalidate.Served<Object> served = swr.get(
+                StaleWhileRevalidate.searchKey(List.of("CENA"), null, "tomate", 0, 10, null, false), () -> {
+                    throw new DataAccessResourceFailureException("sin primario");
+                });
+        assertThat(served.stale()).isTrue();
+        assertThat(served.value()).isSameAs(page);
+    }
+
+    @Test
+    void preload_shouldSkipRecipesDeletedSinceTheListWasSaved() {
+        when(recipeService.getRecipeById("gone")).thenThrow(new RecipeNotFoundException("Receta no encontrada"));
+
+        int preloaded = warmUp.preload(new HotKeyRecorder.HotKeys(List.of(new HotKeyRecorder.Hit<>("gone", 5)),
+                List.of()), far());
+
+        assertThat(preloaded).isZero();
+    }
+
+    @Test
+    void run_shouldNotFailTheStartupWhenMongoIsDown() {
+        DataAccessResourceFailureException down = new DataAccessResourceFailureException("sin conexión");
+        when(mongoTemplate.executeCommand(anyString())).thenThrow(down);
+        when(recipeService.searchRecipes(any(), any(), any(), anyInt(), anyInt(), any(), anyBoolean()))
+                .thenThrow(down);
+
+        warmUp.run(new DefaultApplicationArguments());
+
+        assertThat(meterRegistry.timer("recipes.warmup.duration").count()).isEqualTo(1);
+    }
+
+    @Test
+    void synthetic_shouldCoverFiltersKeywordsAndFuzzy() {
+        List<SearchQuery> queries = IntStream.range(0, 20).mapToObj(RecipeWarmUp::synthetic)
+                .toList();
+
+        assertThat(queries).anyMatch(query -> query.categories() != null);
+        assertThat(queries).anyMatch(query -> query.fit() != null);
+        assertThat(queries).anyMatch(query -> query.search() != null);
+        assertThat(queries).anyMatch(SearchQuery::fuzzy);
+    }
+
+    private static long far() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    }
+}